@@ -0,0 +1,16 @@
+package android.app;
+
+import android.content.ContextWrapper;
+import android.content.Intent;
+
+public class Activity extends ContextWrapper {
+    public void startActivityForResult(Intent intent, int requestCode) {
+    }
+
+    public void finishActivity(int requestCode) {
+    }
+
+    public FragmentManager getFragmentManager() {
+        return new FragmentManager();
+    }
+}
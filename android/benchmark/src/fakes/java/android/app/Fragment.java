@@ -0,0 +1,36 @@
+package android.app;
+
+import android.os.Bundle;
+import android.view.View;
+
+public class Fragment {
+    public View getView() {
+        return null;
+    }
+
+    public Activity getActivity() {
+        return null;
+    }
+
+    public boolean isAdded() {
+        return false;
+    }
+
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+    }
+
+    public void onStart() {
+    }
+
+    public void onResume() {
+    }
+
+    public void onPause() {
+    }
+
+    public void onStop() {
+    }
+
+    public void onDestroyView() {
+    }
+}
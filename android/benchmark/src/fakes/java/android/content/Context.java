@@ -0,0 +1,21 @@
+package android.content;
+
+import android.content.pm.ApplicationInfo;
+
+import java.io.File;
+
+public abstract class Context {
+    public static final String POWER_SERVICE = "power";
+
+    public abstract Context getApplicationContext();
+
+    public abstract ApplicationInfo getApplicationInfo();
+
+    public abstract File getFilesDir();
+
+    public abstract Object getSystemService(String name);
+
+    public abstract Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter);
+
+    public abstract void unregisterReceiver(BroadcastReceiver receiver);
+}
@@ -0,0 +1,42 @@
+package android.content;
+
+import android.content.pm.ApplicationInfo;
+
+import java.io.File;
+
+public class ContextWrapper extends Context {
+    private final ApplicationInfo applicationInfo = new ApplicationInfo();
+    private final File filesDir = new File(System.getProperty("java.io.tmpdir"), "sodyo-benchmark-files");
+
+    @Override
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    @Override
+    public ApplicationInfo getApplicationInfo() {
+        return applicationInfo;
+    }
+
+    @Override
+    public File getFilesDir() {
+        return filesDir;
+    }
+
+    /**
+     * No system services, callers fall back as on a device without them.
+     */
+    @Override
+    public Object getSystemService(String name) {
+        return null;
+    }
+
+    @Override
+    public Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter) {
+        return null;
+    }
+
+    @Override
+    public void unregisterReceiver(BroadcastReceiver receiver) {
+    }
+}
@@ -0,0 +1,6 @@
+package android.content;
+
+public class Intent {
+    public Intent(Context packageContext, Class<?> cls) {
+    }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * Reports an API level below every version-gated code path.
+ */
+public class Build {
+    public static class VERSION {
+        public static final int SDK_INT = 16;
+    }
+
+    public static class VERSION_CODES {
+        public static final int JELLY_BEAN_MR2 = 18;
+        public static final int LOLLIPOP = 21;
+        public static final int Q = 29;
+    }
+}
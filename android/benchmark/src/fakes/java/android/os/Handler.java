@@ -0,0 +1,25 @@
+package android.os;
+
+/**
+ * Runs posted work inline; delayed work is dropped, since benchmarks flush
+ * explicitly.
+ */
+public class Handler {
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+    }
+
+    public final void removeCallbacksAndMessages(Object token) {
+    }
+}
@@ -0,0 +1,13 @@
+package android.os;
+
+public class HandlerThread {
+    public HandlerThread(String name) {
+    }
+
+    public void start() {
+    }
+
+    public Looper getLooper() {
+        return Looper.getMainLooper();
+    }
+}
@@ -0,0 +1,23 @@
+package android.os;
+
+public final class PowerManager {
+    public static final String ACTION_POWER_SAVE_MODE_CHANGED = "android.os.action.POWER_SAVE_MODE_CHANGED";
+
+    public interface OnThermalStatusChangedListener {
+        void onThermalStatusChanged(int status);
+    }
+
+    public boolean isPowerSaveMode() {
+        return false;
+    }
+
+    public int getCurrentThermalStatus() {
+        return 0;
+    }
+
+    public void addThermalStatusListener(OnThermalStatusChangedListener listener) {
+    }
+
+    public void removeThermalStatusListener(OnThermalStatusChangedListener listener) {
+    }
+}
@@ -0,0 +1,26 @@
+package android.view;
+
+/**
+ * Fires frame callbacks immediately.
+ */
+public class Choreographer {
+    private static final Choreographer INSTANCE = new Choreographer();
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    public static Choreographer getInstance() {
+        return INSTANCE;
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+        callback.doFrame(System.nanoTime());
+    }
+
+    public void postFrameCallbackDelayed(FrameCallback callback, long delayMillis) {
+    }
+
+    public void removeFrameCallback(FrameCallback callback) {
+    }
+}
@@ -0,0 +1,9 @@
+package android.view;
+
+public class ViewGroup extends View implements ViewParent {
+    public void removeView(View view) {
+        if (view.getParent() == this) {
+            view.setParent(null);
+        }
+    }
+}
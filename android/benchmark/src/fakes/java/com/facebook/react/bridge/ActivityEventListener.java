@@ -0,0 +1,10 @@
+package com.facebook.react.bridge;
+
+import android.app.Activity;
+import android.content.Intent;
+
+public interface ActivityEventListener {
+    void onActivityResult(Activity activity, int requestCode, int resultCode, Intent data);
+
+    void onNewIntent(Intent intent);
+}
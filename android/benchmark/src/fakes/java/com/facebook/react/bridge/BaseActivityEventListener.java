@@ -0,0 +1,14 @@
+package com.facebook.react.bridge;
+
+import android.app.Activity;
+import android.content.Intent;
+
+public class BaseActivityEventListener implements ActivityEventListener {
+    @Override
+    public void onActivityResult(Activity activity, int requestCode, int resultCode, Intent data) {
+    }
+
+    @Override
+    public void onNewIntent(Intent intent) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.facebook.react.bridge;
+
+import java.util.Map;
+
+public abstract class BaseJavaModule implements NativeModule {
+    public Map<String, Object> getConstants() {
+        return null;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void invalidate() {
+    }
+
+    public void onCatalystInstanceDestroy() {
+    }
+}
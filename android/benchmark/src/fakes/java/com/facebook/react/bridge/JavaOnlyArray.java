@@ -0,0 +1,146 @@
+package com.facebook.react.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List-backed WritableArray. Numbers are stored as Double, like the native
+ * implementation hands them out.
+ */
+public class JavaOnlyArray implements WritableArray {
+    private final List<Object> backingList = new ArrayList<>();
+
+    public static JavaOnlyArray of(Object... values) {
+        JavaOnlyArray array = new JavaOnlyArray();
+        for (Object value : values) {
+            array.backingList.add(value instanceof Number ? ((Number) value).doubleValue() : value);
+        }
+        return array;
+    }
+
+    static ReadableType typeOf(Object value) {
+        if (value == null) {
+            return ReadableType.Null;
+        } else if (value instanceof Boolean) {
+            return ReadableType.Boolean;
+        } else if (value instanceof Number) {
+            return ReadableType.Number;
+        } else if (value instanceof String) {
+            return ReadableType.String;
+        } else if (value instanceof ReadableMap) {
+            return ReadableType.Map;
+        } else if (value instanceof ReadableArray) {
+            return ReadableType.Array;
+        }
+        throw new IllegalArgumentException("Unsupported value " + value);
+    }
+
+    static Object unwrap(Object value) {
+        if (value instanceof ReadableMap) {
+            return ((ReadableMap) value).toHashMap();
+        } else if (value instanceof ReadableArray) {
+            return ((ReadableArray) value).toArrayList();
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return backingList.size();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return backingList.get(index) == null;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return (Boolean) backingList.get(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return ((Number) backingList.get(index)).doubleValue();
+    }
+
+    @Override
+    public int getInt(int index) {
+        return ((Number) backingList.get(index)).intValue();
+    }
+
+    @Override
+    public String getString(int index) {
+        return (String) backingList.get(index);
+    }
+
+    @Override
+    public ReadableArray getArray(int index) {
+        return (ReadableArray) backingList.get(index);
+    }
+
+    @Override
+    public ReadableMap getMap(int index) {
+        return (ReadableMap) backingList.get(index);
+    }
+
+    @Override
+    public ReadableType getType(int index) {
+        return typeOf(backingList.get(index));
+    }
+
+    @Override
+    public ArrayList<Object> toArrayList() {
+        return new ArrayList<>(JavaOnlyMap.unwrapAll(backingList));
+    }
+
+    @Override
+    public void pushNull() {
+        backingList.add(null);
+    }
+
+    @Override
+    public void pushBoolean(boolean value) {
+        backingList.add(value);
+    }
+
+    @Override
+    public void pushDouble(double value) {
+        backingList.add(value);
+    }
+
+    @Override
+    public void pushInt(int value) {
+        backingList.add((double) value);
+    }
+
+    @Override
+    public void pushString(String value) {
+        backingList.add(value);
+    }
+
+    @Override
+    public void pushArray(ReadableArray array) {
+        backingList.add(array);
+    }
+
+    @Override
+    public void pushMap(ReadableMap map) {
+        backingList.add(map);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JavaOnlyArray && backingList.equals(((JavaOnlyArray) o).backingList);
+    }
+
+    @Override
+    public int hashCode() {
+        return backingList.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return backingList.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package com.facebook.react.bridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map-backed WritableMap. Numbers are stored as Double, like the native
+ * implementation hands them out.
+ */
+public class JavaOnlyMap implements WritableMap {
+    private final Map<String, Object> backingMap = new LinkedHashMap<>();
+
+    public static JavaOnlyMap of(Object... keysAndValues) {
+        JavaOnlyMap map = new JavaOnlyMap();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            Object value = keysAndValues[i + 1];
+            map.backingMap.put((String) keysAndValues[i], value instanceof Number ? ((Number) value).doubleValue() : value);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean hasKey(String name) {
+        return backingMap.containsKey(name);
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return backingMap.get(name) == null;
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        return (Boolean) backingMap.get(name);
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return ((Number) backingMap.get(name)).doubleValue();
+    }
+
+    @Override
+    public int getInt(String name) {
+        return ((Number) backingMap.get(name)).intValue();
+    }
+
+    @Override
+    public String getString(String name) {
+        return (String) backingMap.get(name);
+    }
+
+    @Override
+    public ReadableArray getArray(String name) {
+        return (ReadableArray) backingMap.get(name);
+    }
+
+    @Override
+    public ReadableMap getMap(String name) {
+        return (ReadableMap) backingMap.get(name);
+    }
+
+    @Override
+    public ReadableType getType(String name) {
+        return JavaOnlyArray.typeOf(backingMap.get(name));
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, Object>> getEntryIterator() {
+        return backingMap.entrySet().iterator();
+    }
+
+    @Override
+    public ReadableMapKeySetIterator keySetIterator() {
+        final Iterator<String> keys = backingMap.keySet().iterator();
+        return new ReadableMapKeySetIterator() {
+            @Override
+            public boolean hasNextKey() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public String nextKey() {
+                return keys.next();
+            }
+        };
+    }
+
+    @Override
+    public HashMap<String, Object> toHashMap() {
+        HashMap<String, Object> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : backingMap.entrySet()) {
+            result.put(entry.getKey(), JavaOnlyArray.unwrap(entry.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public void putNull(String key) {
+        backingMap.put(key, null);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        backingMap.put(key, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        backingMap.put(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        backingMap.put(key, (double) value);
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        backingMap.put(key, value);
+    }
+
+    @Override
+    public void putArray(String key, ReadableArray value) {
+        backingMap.put(key, value);
+    }
+
+    @Override
+    public void putMap(String key, ReadableMap value) {
+        backingMap.put(key, value);
+    }
+
+    @Override
+    public void merge(ReadableMap source) {
+        Iterator<Map.Entry<String, Object>> entries = source.getEntryIterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Object> entry = entries.next();
+            backingMap.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public WritableMap copy() {
+        JavaOnlyMap copy = new JavaOnlyMap();
+        copy.merge(this);
+        return copy;
+    }
+
+    public int size() {
+        return backingMap.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JavaOnlyMap && backingMap.equals(((JavaOnlyMap) o).backingMap);
+    }
+
+    @Override
+    public int hashCode() {
+        return backingMap.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return backingMap.toString();
+    }
+
+    static List<Object> unwrapAll(List<Object> values) {
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(JavaOnlyArray.unwrap(value));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,9 @@
+package com.facebook.react.bridge;
+
+public interface NativeModule {
+    String getName();
+
+    void initialize();
+
+    void invalidate();
+}
@@ -0,0 +1,16 @@
+package com.facebook.react.bridge;
+
+import android.app.Application;
+import android.content.Context;
+
+/**
+ * Hands out a fake Application as its application context, as the module casts it to one.
+ */
+public class ReactApplicationContext extends ReactContext {
+    private final Application application = new Application();
+
+    @Override
+    public Context getApplicationContext() {
+        return application;
+    }
+}
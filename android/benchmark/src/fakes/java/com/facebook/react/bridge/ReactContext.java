@@ -0,0 +1,73 @@
+package com.facebook.react.bridge;
+
+import android.app.Activity;
+import android.content.ContextWrapper;
+
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+/**
+ * Fake ReactContext whose JS side is a counting RCTDeviceEventEmitter.
+ */
+public class ReactContext extends ContextWrapper {
+    private final CountingEventEmitter emitter = new CountingEventEmitter();
+    private volatile boolean activeReactInstance = true;
+    private Activity currentActivity = new Activity();
+
+    public static final class CountingEventEmitter implements DeviceEventManagerModule.RCTDeviceEventEmitter {
+        public volatile long emitted;
+        public volatile String lastEventName;
+        public volatile Object lastParams;
+
+        @Override
+        public void emit(String eventName, Object data) {
+            emitted++;
+            lastEventName = eventName;
+            lastParams = data;
+        }
+    }
+
+    public CountingEventEmitter getEmitter() {
+        return emitter;
+    }
+
+    public void setActiveReactInstance(boolean active) {
+        activeReactInstance = active;
+    }
+
+    public boolean hasActiveReactInstance() {
+        return activeReactInstance;
+    }
+
+    public boolean hasActiveCatalystInstance() {
+        return activeReactInstance;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends JavaScriptModule> T getJSModule(Class<T> jsInterface) {
+        return (T) emitter;
+    }
+
+    public void addActivityEventListener(ActivityEventListener listener) {
+    }
+
+    public void removeActivityEventListener(ActivityEventListener listener) {
+    }
+
+    public void addLifecycleEventListener(LifecycleEventListener listener) {
+    }
+
+    public void removeLifecycleEventListener(LifecycleEventListener listener) {
+    }
+
+    public Activity getCurrentActivity() {
+        return currentActivity;
+    }
+
+    public void setCurrentActivity(Activity activity) {
+        currentActivity = activity;
+    }
+
+    public boolean hasCurrentActivity() {
+        return currentActivity != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.facebook.react.bridge;
+
+import android.app.Activity;
+
+public abstract class ReactContextBaseJavaModule extends BaseJavaModule {
+    private final ReactApplicationContext reactContext;
+
+    public ReactContextBaseJavaModule() {
+        this(null);
+    }
+
+    public ReactContextBaseJavaModule(ReactApplicationContext reactContext) {
+        this.reactContext = reactContext;
+    }
+
+    protected final ReactApplicationContext getReactApplicationContext() {
+        return reactContext;
+    }
+
+    protected final Activity getCurrentActivity() {
+        return reactContext != null ? reactContext.getCurrentActivity() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.facebook.react.bridge;
+
+/**
+ * There is no UI thread on the JVM: everything runs inline on the caller.
+ */
+public class UiThreadUtil {
+    public static boolean isOnUiThread() {
+        return true;
+    }
+
+    public static void assertOnUiThread() {
+    }
+
+    public static void runOnUiThread(Runnable runnable) {
+        runnable.run();
+    }
+
+    public static void runOnUiThread(Runnable runnable, long delayInMs) {
+        runnable.run();
+    }
+}
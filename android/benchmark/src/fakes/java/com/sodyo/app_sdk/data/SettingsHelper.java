@@ -0,0 +1,9 @@
+package com.sodyo.app_sdk.data;
+
+public class SettingsHelper {
+    public enum ScannerViewMode {
+        Normal,
+        Troubleshoot,
+        DeviceTester,
+    }
+}
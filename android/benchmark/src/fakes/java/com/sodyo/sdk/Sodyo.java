@@ -0,0 +1,115 @@
+package com.sodyo.sdk;
+
+import android.app.Activity;
+import android.app.Application;
+
+import com.sodyo.app_sdk.data.SettingsHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fake Sodyo SDK: init succeeds synchronously and the registered callbacks are
+ * exposed so benchmarks can drive them directly.
+ */
+public class Sodyo {
+    private static final Sodyo INSTANCE = new Sodyo();
+
+    private static volatile boolean initialized;
+    private static volatile SettingsHelper.ScannerViewMode mode = SettingsHelper.ScannerViewMode.Normal;
+
+    private volatile SodyoScannerCallback scannerCallback;
+    private volatile SodyoMarkerContentCallback markerContentCallback;
+    private volatile SodyoModeCallback modeCallback;
+
+    public static volatile Object lastValue;
+
+    public static Sodyo getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isInitialized() {
+        return initialized;
+    }
+
+    public static void init(Application application, String apiKey, SodyoInitCallback callback) {
+        initialized = true;
+        callback.onSodyoAppLoadSuccess();
+    }
+
+    public SodyoScannerCallback getSodyoScannerCallback() {
+        return scannerCallback;
+    }
+
+    public SodyoMarkerContentCallback getSodyoMarkerContentCallback() {
+        return markerContentCallback;
+    }
+
+    public SodyoModeCallback getSodyoModeCallback() {
+        return modeCallback;
+    }
+
+    public void setSodyoScannerCallback(SodyoScannerCallback callback) {
+        scannerCallback = callback;
+    }
+
+    public void setSodyoMarkerContentCallback(SodyoMarkerContentCallback callback) {
+        markerContentCallback = callback;
+    }
+
+    public void setSodyoModeCallback(SodyoModeCallback callback) {
+        modeCallback = callback;
+    }
+
+    public void setUserInfo(Map<String, Object> userInfo) {
+        lastValue = userInfo;
+    }
+
+    public static void setCustomAdLabel(String label) {
+        lastValue = label;
+    }
+
+    public static void setAppUserId(String userId) {
+        lastValue = userId;
+    }
+
+    public static void setScannerParams(Map<String, String> params) {
+        lastValue = params;
+    }
+
+    public static void addScannerParams(String key, String value) {
+        lastValue = value;
+    }
+
+    public static void startScanning() {
+    }
+
+    public static void stopScanning() {
+    }
+
+    public static void setDynamicProfile(HashMap<String, Object> profile) {
+        lastValue = profile;
+    }
+
+    public static void setDynamicProfileValue(String key, String value) {
+        lastValue = value;
+    }
+
+    public static void performMarker(String markerId, Activity activity, Map<String, Object> customProperties) {
+        lastValue = customProperties;
+    }
+
+    public static void startTroubleshoot(Activity activity) {
+    }
+
+    public static void setMode(Activity activity, SettingsHelper.ScannerViewMode newMode) {
+        mode = newMode;
+    }
+
+    public static SettingsHelper.ScannerViewMode getMode() {
+        return mode;
+    }
+
+    public static void setSodyoLogoVisible(boolean isVisible) {
+    }
+}
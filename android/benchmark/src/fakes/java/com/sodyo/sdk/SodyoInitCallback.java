@@ -0,0 +1,9 @@
+package com.sodyo.sdk;
+
+public interface SodyoInitCallback {
+    void onSodyoAppLoadSuccess();
+
+    void onSodyoAppLoadFailed(String error);
+
+    void sodyoError(Error err);
+}
@@ -0,0 +1,7 @@
+package com.sodyo.sdk;
+
+import org.json.JSONObject;
+
+public interface SodyoMarkerContentCallback {
+    void onMarkerContent(String markerId, JSONObject data);
+}
@@ -0,0 +1,7 @@
+package com.sodyo.sdk;
+
+import com.sodyo.app_sdk.data.SettingsHelper;
+
+public interface SodyoModeCallback {
+    void onModeChange(SettingsHelper.ScannerViewMode oldMode, SettingsHelper.ScannerViewMode newMode);
+}
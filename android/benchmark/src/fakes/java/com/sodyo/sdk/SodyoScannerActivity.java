@@ -0,0 +1,6 @@
+package com.sodyo.sdk;
+
+import android.app.Activity;
+
+public class SodyoScannerActivity extends Activity {
+}
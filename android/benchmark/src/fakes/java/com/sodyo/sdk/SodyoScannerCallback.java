@@ -0,0 +1,5 @@
+package com.sodyo.sdk;
+
+public interface SodyoScannerCallback {
+    void onMarkerDetect(String markerType, String data, String error);
+}
@@ -0,0 +1,11 @@
+package com.sodyo.sdk;
+
+import android.app.Fragment;
+
+public class SodyoScannerFragment extends Fragment {
+    public void startCamera() {
+    }
+
+    public void stopCamera() {
+    }
+}
@@ -0,0 +1,52 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Module setup shared by the benchmarks that drive {@link RNSodyoSdkModule}.
+ */
+final class BenchmarkModules {
+    private BenchmarkModules() {
+    }
+
+    /**
+     * Inits the module and waits for it, the SDK callbacks are installed on the
+     * module's command thread.
+     */
+    static void init(RNSodyoSdkModule module) throws InterruptedException {
+        final CountDownLatch ready = new CountDownLatch(1);
+        module.init("benchmark", new Promise() {
+            @Override
+            public void resolve(Object value) {
+                ready.countDown();
+            }
+
+            @Override
+            public void reject(String code, String message) {
+                ready.countDown();
+            }
+
+            @Override
+            public void reject(String code, Throwable throwable) {
+                ready.countDown();
+            }
+
+            @Override
+            public void reject(String code, String message, Throwable throwable) {
+                ready.countDown();
+            }
+
+            @Override
+            public void reject(Throwable throwable) {
+                ready.countDown();
+            }
+        });
+
+        if (!ready.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("module init did not complete");
+        }
+    }
+}
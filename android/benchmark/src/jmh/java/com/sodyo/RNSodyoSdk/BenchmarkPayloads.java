@@ -0,0 +1,121 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Payload shapes shared by the benchmarks, modelled on what apps pass to
+ * setUserInfo / setDynamicProfile / performMarker and get back as marker content.
+ */
+final class BenchmarkPayloads {
+    static final String FLAT_SMALL = "flat_small";
+    static final String FLAT_LARGE = "flat_large";
+    static final String NESTED_DEEP = "nested_deep";
+    static final String MIXED_WIDE = "mixed_wide";
+
+    private BenchmarkPayloads() {
+    }
+
+    static JavaOnlyMap map(String shape) {
+        switch (shape) {
+            case FLAT_SMALL:
+                return flatMap(8);
+            case FLAT_LARGE:
+                return flatMap(256);
+            case NESTED_DEEP:
+                return nestedMap(32);
+            case MIXED_WIDE:
+                return mixedMap(16, 16);
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+
+    static JavaOnlyArray array(String shape) {
+        JavaOnlyArray array = new JavaOnlyArray();
+        int size = FLAT_LARGE.equals(shape) ? 256 : 16;
+        for (int i = 0; i < size; i++) {
+            if (FLAT_SMALL.equals(shape) || FLAT_LARGE.equals(shape)) {
+                array.pushDouble(i * 1.5);
+            } else {
+                array.pushMap(map(FLAT_SMALL));
+            }
+        }
+        return array;
+    }
+
+    /**
+     * String, integer, fractional and boolean values in equal parts.
+     */
+    static JavaOnlyMap flatMap(int size) {
+        JavaOnlyMap map = new JavaOnlyMap();
+        for (int i = 0; i < size; i++) {
+            String key = "key_" + i;
+            switch (i % 4) {
+                case 0:
+                    map.putString(key, "value_" + i);
+                    break;
+                case 1:
+                    map.putInt(key, i);
+                    break;
+                case 2:
+                    map.putDouble(key, i + 0.25);
+                    break;
+                default:
+                    map.putBoolean(key, (i & 1) == 0);
+                    break;
+            }
+        }
+        return map;
+    }
+
+    static JavaOnlyMap nestedMap(int depth) {
+        JavaOnlyMap root = flatMap(4);
+        JavaOnlyMap current = root;
+        for (int i = 0; i < depth; i++) {
+            JavaOnlyMap child = flatMap(4);
+            current.putMap("child", child);
+            current = child;
+        }
+        return root;
+    }
+
+    static JavaOnlyMap mixedMap(int width, int arraySize) {
+        JavaOnlyMap map = new JavaOnlyMap();
+        for (int i = 0; i < width; i++) {
+            map.putMap("object_" + i, flatMap(8));
+
+            JavaOnlyArray array = new JavaOnlyArray();
+            for (int j = 0; j < arraySize; j++) {
+                array.pushDouble(j);
+            }
+            map.putArray("array_" + i, array);
+        }
+        return map;
+    }
+
+    /**
+     * Marker content of roughly the requested number of bytes once serialized.
+     */
+    static JSONObject markerContent(int approximateBytes) throws Exception {
+        JSONObject content = new JSONObject();
+        content.put("title", "Benchmark marker");
+        content.put("id", 9007199254740993L);
+        content.put("price", 12.5);
+
+        JSONArray actions = new JSONArray();
+        int index = 0;
+        while (content.toString().length() < approximateBytes) {
+            JSONObject action = new JSONObject();
+            action.put("type", "link");
+            action.put("url", "https://example.com/item/" + index);
+            action.put("order", index++);
+            actions.put(action);
+            content.put("actions", actions);
+        }
+        return content;
+    }
+}
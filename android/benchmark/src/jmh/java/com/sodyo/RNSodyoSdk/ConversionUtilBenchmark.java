@@ -0,0 +1,63 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ConversionUtil against the pre-rewrite implementation, across payload shapes.
+ */
+@State(Scope.Thread)
+public class ConversionUtilBenchmark {
+    @Param({
+        BenchmarkPayloads.FLAT_SMALL,
+        BenchmarkPayloads.FLAT_LARGE,
+        BenchmarkPayloads.NESTED_DEEP,
+        BenchmarkPayloads.MIXED_WIDE,
+    })
+    public String shape;
+
+    private JavaOnlyMap map;
+    private JavaOnlyArray array;
+
+    @Setup
+    public void setUp() {
+        map = BenchmarkPayloads.map(shape);
+        array = BenchmarkPayloads.array(shape);
+    }
+
+    @Benchmark
+    public Object toMap() {
+        return ConversionUtil.toMap(map);
+    }
+
+    @Benchmark
+    public Object toMapLegacy() {
+        return LegacyConversionUtil.toMap(map);
+    }
+
+    @Benchmark
+    public Object toFlatMap() {
+        return ConversionUtil.toFlatMap(map);
+    }
+
+    @Benchmark
+    public Object toFlatMapLegacy() {
+        return LegacyConversionUtil.toFlatMap(map);
+    }
+
+    @Benchmark
+    public Object toList() {
+        return ConversionUtil.toList(array);
+    }
+
+    @Benchmark
+    public Object toListLegacy() {
+        return LegacyConversionUtil.toList(array);
+    }
+}
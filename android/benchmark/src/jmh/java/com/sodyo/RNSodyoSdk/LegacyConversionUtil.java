@@ -0,0 +1,184 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * ConversionUtil as it was before the work-stack rewrite, kept as the baseline
+ * for {@link ConversionUtilBenchmark}.
+ */
+final class LegacyConversionUtil {
+    /**
+     * toObject extracts a value from a {@link ReadableMap} by its key,
+     * and returns a POJO representing that object.
+     *
+     * @param readableMap The Map to containing the value to be converted
+     * @param key The key for the value to be converted
+     * @return The converted POJO
+     */
+    static Object toObject(@Nullable ReadableMap readableMap, String key) {
+        if (readableMap == null) {
+            return null;
+        }
+
+        Object result;
+
+        ReadableType readableType = readableMap.getType(key);
+        switch (readableType) {
+            // Issue #9 fix: return null instead of the key name
+            case Null:
+                result = null;
+                break;
+            case Boolean:
+                result = readableMap.getBoolean(key);
+                break;
+            case Number:
+                // Can be int or double.
+                double tmp = readableMap.getDouble(key);
+                if (tmp == (int) tmp) {
+                    result = (int) tmp;
+                } else {
+                    result = tmp;
+                }
+                break;
+            case String:
+                result = readableMap.getString(key);
+                break;
+            case Map:
+                result = toMap(readableMap.getMap(key));
+                break;
+            case Array:
+                result = toList(readableMap.getArray(key));
+                break;
+            default:
+                throw new IllegalArgumentException("Could not convert object with key: " + key + ".");
+        }
+
+        return result;
+    }
+
+    /**
+     * toMap converts a {@link ReadableMap} into a HashMap.
+     *
+     * @param readableMap The ReadableMap to be conveted.
+     * @return A HashMap containing the data that was in the ReadableMap.
+     */
+    static Map<String, Object> toMap(@Nullable ReadableMap readableMap) {
+        if (readableMap == null) {
+            return null;
+        }
+
+        com.facebook.react.bridge.ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
+        if (!iterator.hasNextKey()) {
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        while (iterator.hasNextKey()) {
+            String key = iterator.nextKey();
+            result.put(key, toObject(readableMap, key));
+        }
+
+        return result;
+    }
+
+    /**
+     * toFlatMap converts a {@link ReadableMap} into a HashMap<string, string>.
+     *
+     * @param readableMap The ReadableMap to be conveted.
+     * @return A HashMap containing the data that was in the ReadableMap.
+     */
+    // Issue #15 fix: handle non-string value types
+    static Map<String, String> toFlatMap(@Nullable ReadableMap readableMap) {
+        if (readableMap == null) {
+            return null;
+        }
+
+        com.facebook.react.bridge.ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
+        if (!iterator.hasNextKey()) {
+            return null;
+        }
+
+        Map<String, String> result = new HashMap<>();
+        while (iterator.hasNextKey()) {
+            String key = iterator.nextKey();
+            ReadableType type = readableMap.getType(key);
+            switch (type) {
+                case String:
+                    result.put(key, readableMap.getString(key));
+                    break;
+                case Number:
+                    result.put(key, String.valueOf(readableMap.getDouble(key)));
+                    break;
+                case Boolean:
+                    result.put(key, String.valueOf(readableMap.getBoolean(key)));
+                    break;
+                case Null:
+                    result.put(key, null);
+                    break;
+                default:
+                    result.put(key, String.valueOf(toObject(readableMap, key)));
+                    break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * toList converts a {@link ReadableArray} into an ArrayList.
+     *
+     * @param readableArray The ReadableArray to be conveted.
+     * @return An ArrayList containing the data that was in the ReadableArray.
+     */
+    static List<Object> toList(@Nullable ReadableArray readableArray) {
+        if (readableArray == null) {
+            return null;
+        }
+
+        List<Object> result = new ArrayList<>(readableArray.size());
+        for (int index = 0; index < readableArray.size(); index++) {
+            ReadableType readableType = readableArray.getType(index);
+            switch (readableType) {
+                // Issue #9 fix: add null instead of index string
+                case Null:
+                    result.add(null);
+                    break;
+                case Boolean:
+                    result.add(readableArray.getBoolean(index));
+                    break;
+                case Number:
+                    // Can be int or double.
+                    double tmp = readableArray.getDouble(index);
+                    if (tmp == (int) tmp) {
+                        result.add((int) tmp);
+                    } else {
+                        result.add(tmp);
+                    }
+                    break;
+                case String:
+                    result.add(readableArray.getString(index));
+                    break;
+                case Map:
+                    result.add(toMap(readableArray.getMap(index)));
+                    break;
+                // Issue #8 fix: add nested array to result instead of overwriting
+                case Array:
+                    result.add(toList(readableArray.getArray(index)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Could not convert object with index: " + index + ".");
+            }
+        }
+
+        return result;
+    }
+}
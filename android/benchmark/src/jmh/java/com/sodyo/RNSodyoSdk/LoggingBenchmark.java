@@ -0,0 +1,51 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.util.Log;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The onMarkerContent log statement with the level disabled: string
+ * concatenation as the module used to do it versus the SodyoLog facade, plus
+ * a statement with primitive arguments. Compare gc.alloc.rate.norm between them.
+ */
+@State(Scope.Thread)
+public class LoggingBenchmark {
+    private static final String TAG = "SodyoSDK";
+
+    @Param({"256", "16384"})
+    public int contentBytes;
+
+    private String markerId;
+    private JSONObject content;
+    private long idleMs;
+
+    @Setup
+    public void setUp() throws Exception {
+        SodyoLog.setLevel(SodyoLog.WARN);
+        markerId = "benchmark-marker";
+        content = BenchmarkPayloads.markerContent(contentBytes);
+        // Outside the Long.valueOf cache, so boxing it would allocate
+        idleMs = 300000;
+    }
+
+    @Benchmark
+    public int concatenation() {
+        return Log.i(TAG, "onMarkerContent() - markerId: " + markerId + ", data: " + content);
+    }
+
+    @Benchmark
+    public void facade() {
+        SodyoLog.i(TAG, "onMarkerContent() - markerId: %s, data: %s", markerId, content);
+    }
+
+    @Benchmark
+    public void facadePrimitives() {
+        SodyoLog.i(TAG, "no detection for %sms, stopping scanning", idleMs);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.sodyo.sdk.Sodyo;
+import com.sodyo.sdk.SodyoMarkerContentCallback;
+import com.sodyo.sdk.SodyoScannerCallback;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SDK callback to RCTDeviceEventEmitter.emit, through the real module code.
+ */
+@State(Scope.Thread)
+public class MarkerCallbackBenchmark {
+    @Param({"WARN", "DEBUG"})
+    public String logLevel;
+
+    @Param({"256", "16384"})
+    public int contentBytes;
+
+    @Param({"false", "true"})
+    public boolean structuredContent;
+
+    private ReactApplicationContext reactContext;
+    private RNSodyoSdkModule module;
+    private SodyoScannerCallback scannerCallback;
+    private SodyoMarkerContentCallback markerContentCallback;
+    private JSONObject content;
+
+    @Setup
+    public void setUp() throws Exception {
+        reactContext = new ReactApplicationContext();
+        module = new RNSodyoSdkModule(reactContext);
+        module.setLogLevel(logLevel);
+        module.setStructuredMarkerContent(structuredContent);
+
+        BenchmarkModules.init(module);
+
+        scannerCallback = Sodyo.getInstance().getSodyoScannerCallback();
+        markerContentCallback = Sodyo.getInstance().getSodyoMarkerContentCallback();
+        content = BenchmarkPayloads.markerContent(contentBytes);
+    }
+
+    @Benchmark
+    public Object onMarkerDetect() {
+        scannerCallback.onMarkerDetect("QR", "benchmark-marker", null);
+        return reactContext.getEmitter().lastParams;
+    }
+
+    @Benchmark
+    public Object onMarkerContent() {
+        markerContentCallback.onMarkerContent("benchmark-marker", content);
+        return reactContext.getEmitter().lastParams;
+    }
+}
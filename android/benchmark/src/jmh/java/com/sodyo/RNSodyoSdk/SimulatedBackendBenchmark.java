@@ -0,0 +1,58 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * One burst of synthetic markers from {@link SimulatedSodyoBackend} through the
+ * module to RCTDeviceEventEmitter.emit, with a mix of errors and content.
+ */
+@State(Scope.Thread)
+public class SimulatedBackendBenchmark {
+    @Param({"1", "16"})
+    public int burstSize;
+
+    @Param({"256", "16384"})
+    public int payloadBytes;
+
+    @Param({"0", "0.1"})
+    public double errorRatio;
+
+    private ReactApplicationContext reactContext;
+    private SimulatedSodyoBackend backend;
+
+    @Setup
+    public void setUp() throws Exception {
+        SimulatedSodyoBackend.Config config = new SimulatedSodyoBackend.Config();
+        config.burstSize = burstSize;
+        config.payloadBytes = payloadBytes;
+        config.errorRatio = errorRatio;
+        config.seed = 42;
+        backend = new SimulatedSodyoBackend(config);
+        SodyoBackends.set(backend);
+
+        reactContext = new ReactApplicationContext();
+        RNSodyoSdkModule module = new RNSodyoSdkModule(reactContext);
+        module.setLogLevel("WARN");
+
+        BenchmarkModules.init(module);
+    }
+
+    @TearDown
+    public void tearDown() {
+        backend.shutdown();
+        SodyoBackends.set(null);
+    }
+
+    @Benchmark
+    public Object burst() {
+        backend.emitBurst();
+        return reactContext.getEmitter().lastParams;
+    }
+}
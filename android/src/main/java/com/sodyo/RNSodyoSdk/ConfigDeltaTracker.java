@@ -0,0 +1,160 @@
+package com.sodyo.RNSodyoSDK;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Remembers the last map pushed into the SDK for each configuration section, so
+ * repeated calls can forward only the keys that changed, or nothing at all.
+ */
+final class ConfigDeltaTracker {
+    enum Section {
+        USER_INFO("userInfo"),
+        DYNAMIC_PROFILE("dynamicProfile"),
+        SCANNER_PARAMS("scannerParams");
+
+        final String jsName;
+
+        Section(String jsName) {
+            this.jsName = jsName;
+        }
+    }
+
+    /**
+     * What to do with an update, relative to the last applied snapshot.
+     */
+    static final class Delta<V> {
+        /** Nothing changed, the SDK call can be skipped. */
+        final boolean unchanged;
+        /** Keys were removed or there is no snapshot yet, so the whole map has to be pushed. */
+        final boolean full;
+        /** Added or modified entries, valid when neither unchanged nor full. */
+        final Map<String, V> changed;
+
+        Delta(boolean unchanged, boolean full, @Nullable Map<String, V> changed) {
+            this.unchanged = unchanged;
+            this.full = full;
+            this.changed = changed;
+        }
+    }
+
+    private static final class Snapshot {
+        boolean known;
+        Map<String, ?> values;
+    }
+
+    private final Snapshot[] snapshots = new Snapshot[Section.values().length];
+    private final AtomicLong[] skipped = new AtomicLong[Section.values().length];
+    private final AtomicLong[] appliedFull = new AtomicLong[Section.values().length];
+    private final AtomicLong[] appliedDelta = new AtomicLong[Section.values().length];
+
+    ConfigDeltaTracker() {
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = new Snapshot();
+            skipped[i] = new AtomicLong();
+            appliedFull[i] = new AtomicLong();
+            appliedDelta[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Diffs next against the snapshot of section. Does not update the snapshot;
+     * call {@link #applied} once the SDK accepted the update.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <V> Delta<V> diff(Section section, @Nullable Map<String, V> next) {
+        Snapshot snapshot = snapshots[section.ordinal()];
+        if (!snapshot.known) {
+            return new Delta<>(false, true, null);
+        }
+
+        Map<String, V> previous = (Map<String, V>) snapshot.values;
+        if (previous == null || next == null) {
+            boolean unchanged = previous == next || (previous == null ? next.isEmpty() : previous.isEmpty());
+            return new Delta<>(unchanged, !unchanged, null);
+        }
+
+        for (String key : previous.keySet()) {
+            if (!next.containsKey(key)) {
+                return new Delta<>(false, true, null);
+            }
+        }
+
+        Map<String, V> changed = new HashMap<>();
+        for (Map.Entry<String, V> entry : next.entrySet()) {
+            V old = previous.get(entry.getKey());
+            if (!previous.containsKey(entry.getKey()) || !equal(old, entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return changed.isEmpty() ? new Delta<V>(true, false, null) : new Delta<>(false, false, changed);
+    }
+
+    /**
+     * Records that values is now what the SDK holds for section.
+     */
+    synchronized void applied(Section section, @Nullable Map<String, ?> values, boolean full) {
+        Snapshot snapshot = snapshots[section.ordinal()];
+        snapshot.known = true;
+        snapshot.values = values != null ? new HashMap<>(values) : null;
+        (full ? appliedFull : appliedDelta)[section.ordinal()].incrementAndGet();
+    }
+
+    /**
+     * Records values as held by the SDK without counting an apply, e.g. after
+     * a snapshot was restored natively.
+     */
+    synchronized void seed(Section section, @Nullable Map<String, ?> values) {
+        Snapshot snapshot = snapshots[section.ordinal()];
+        snapshot.known = true;
+        snapshot.values = values != null ? new HashMap<>(values) : null;
+    }
+
+    void skipped(Section section) {
+        skipped[section.ordinal()].incrementAndGet();
+    }
+
+    /**
+     * Records a single-key write that bypassed {@link #diff}, e.g. addScannerParam.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void put(Section section, String key, Object value) {
+        Snapshot snapshot = snapshots[section.ordinal()];
+        if (!snapshot.known) {
+            return;
+        }
+        Map<String, Object> values = snapshot.values != null ? (Map<String, Object>) snapshot.values : new HashMap<String, Object>();
+        values.put(key, value);
+        snapshot.values = values;
+    }
+
+    /**
+     * Forgets the snapshot, e.g. after the SDK state was changed in a way that
+     * cannot be tracked. The next update is applied in full.
+     */
+    synchronized void invalidate(Section section) {
+        Snapshot snapshot = snapshots[section.ordinal()];
+        snapshot.known = false;
+        snapshot.values = null;
+    }
+
+    long getSkipped(Section section) {
+        return skipped[section.ordinal()].get();
+    }
+
+    long getAppliedFull(Section section) {
+        return appliedFull[section.ordinal()].get();
+    }
+
+    long getAppliedDelta(Section section) {
+        return appliedDelta[section.ordinal()].get();
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
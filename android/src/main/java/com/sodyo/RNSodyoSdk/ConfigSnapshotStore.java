@@ -0,0 +1,462 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Last configuration applied to the SDK, kept on disk so a cold start can
+ * re-apply it natively as soon as the SDK is initialized, before JS had a
+ * chance to send it again.
+ * <p>
+ * Covers the env (as the scanner params it sets), scanner params, app user id,
+ * custom ad label, user info and dynamic profile. The module records every
+ * successful apply here; the file is rewritten only while the store is
+ * enabled, and its presence is what enables it on the next start. Restoring
+ * applies the sections in applyConfiguration order. All members are thread-safe.
+ * <p>
+ * File layout: int magic, byte version, byte section count, then per section
+ * a byte tag and a tagged value (null, string, boolean, int, long, double,
+ * map, list). Strings, map keys included, are an int byte length and UTF-8.
+ */
+final class ConfigSnapshotStore {
+    private static final String TAG = "ConfigSnapshotStore";
+
+    static final String FILE_NAME = "sodyo-config.bin";
+
+    private static final int MAGIC = 0x53434647; // "SCFG"
+    private static final int VERSION = 2;
+
+    // Snapshots are a few KB; anything past this is not one of ours
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+
+    enum Section {
+        // Restore order, the same as applyConfiguration's
+        ENV(1, "env"),
+        SCANNER_PARAMS(2, "scannerParams"),
+        APP_USER_ID(3, "appUserId"),
+        CUSTOM_AD_LABEL(4, "customAdLabel"),
+        USER_INFO(5, "userInfo"),
+        DYNAMIC_PROFILE(6, "dynamicProfile");
+
+        final int tag;
+        final String jsName;
+
+        Section(int tag, String jsName) {
+            this.tag = tag;
+            this.jsName = jsName;
+        }
+
+        @Nullable
+        static Section fromTag(int tag) {
+            for (Section section : values()) {
+                if (section.tag == tag) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_BOOLEAN = 2;
+    private static final byte T_DOUBLE = 3;
+    private static final byte T_MAP = 4;
+    private static final byte T_LIST = 5;
+    private static final byte T_INT = 6;
+    private static final byte T_LONG = 7;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Guarded by ConfigSnapshotStore.class
+    @Nullable
+    private static File file;
+    private static boolean enabledKnown;
+    private static boolean enabled;
+    private static final Object[] values = new Object[Section.values().length];
+    private static final boolean[] present = new boolean[Section.values().length];
+    private static boolean loaded;
+    private static boolean restored;
+    private static double restoreMs;
+    private static long writes;
+    private static long bytes;
+
+    private ConfigSnapshotStore() {
+    }
+
+    static synchronized void setDirectory(File dir) {
+        File next = new File(dir, FILE_NAME);
+        if (!next.equals(file)) {
+            file = next;
+            enabledKnown = false;
+            loaded = false;
+        }
+    }
+
+    static synchronized boolean isEnabled() {
+        if (!enabledKnown && file != null) {
+            enabled = file.exists();
+            enabledKnown = true;
+        }
+        return enabled;
+    }
+
+    /**
+     * Enabling writes what was recorded so far; disabling deletes the file.
+     */
+    static synchronized void setEnabled(boolean enable) {
+        if (file == null) {
+            SodyoLog.w(TAG, "setEnabled(): no directory set");
+            return;
+        }
+
+        enabled = enable;
+        enabledKnown = true;
+        if (enable) {
+            load();
+            write();
+        } else if (file.exists() && !file.delete()) {
+            SodyoLog.w(TAG, "setEnabled(): could not delete %s", file);
+        } else {
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Records value as applied for section; null clears it.
+     */
+    static synchronized void record(Section section, @Nullable Object value) {
+        boolean persist = isEnabled();
+        if (persist) {
+            // Keeps the sections not recorded yet this run when the file is rewritten
+            load();
+        }
+
+        values[section.ordinal()] = value;
+        present[section.ordinal()] = value != null;
+        if (persist) {
+            write();
+        }
+    }
+
+    /**
+     * Records a single-key write into a map section, e.g. addScannerParam.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized void put(Section section, String key, @Nullable Object value) {
+        Map<String, Object> map = values[section.ordinal()] instanceof Map
+            ? new HashMap<>((Map<String, Object>) values[section.ordinal()])
+            : new HashMap<String, Object>();
+        map.put(key, value);
+        record(section, map);
+    }
+
+    /**
+     * Applies the snapshot on disk to backend, once per process; called when the
+     * SDK reports it is initialized.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized void restore(SodyoBackend backend) {
+        if (restored || !isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        load();
+
+        for (Section section : Section.values()) {
+            if (!present[section.ordinal()]) {
+                continue;
+            }
+
+            Object value = values[section.ordinal()];
+            try {
+                switch (section) {
+                    case ENV:
+                    case SCANNER_PARAMS:
+                        backend.setScannerParams(toStringMap((Map<String, Object>) value));
+                        break;
+                    case APP_USER_ID:
+                        backend.setAppUserId((String) value);
+                        break;
+                    case CUSTOM_AD_LABEL:
+                        backend.setCustomAdLabel((String) value);
+                        break;
+                    case USER_INFO:
+                        backend.setUserInfo((Map<String, Object>) value);
+                        break;
+                    case DYNAMIC_PROFILE:
+                        backend.setDynamicProfile(new HashMap<>((Map<String, Object>) value));
+                        break;
+                }
+            } catch (RuntimeException e) {
+                SodyoLog.e(TAG, "restore(): applying " + section.jsName + " failed", e);
+            }
+        }
+
+        restored = true;
+        restoreMs = (System.nanoTime() - start) / 1e6;
+        SodyoLog.i(TAG, "restore() - applied snapshot in %sms", restoreMs);
+    }
+
+    /**
+     * Tells tracker what the SDK holds after {@link #restore}, so the first JS
+     * update is diffed against it instead of applied in full.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized void seed(ConfigDeltaTracker tracker) {
+        if (!restored) {
+            return;
+        }
+        if (present[Section.SCANNER_PARAMS.ordinal()]) {
+            tracker.seed(ConfigDeltaTracker.Section.SCANNER_PARAMS, toStringMap((Map<String, Object>) values[Section.SCANNER_PARAMS.ordinal()]));
+        }
+        if (present[Section.USER_INFO.ordinal()]) {
+            tracker.seed(ConfigDeltaTracker.Section.USER_INFO, (Map<String, Object>) values[Section.USER_INFO.ordinal()]);
+        }
+        if (present[Section.DYNAMIC_PROFILE.ordinal()]) {
+            tracker.seed(ConfigDeltaTracker.Section.DYNAMIC_PROFILE, (Map<String, Object>) values[Section.DYNAMIC_PROFILE.ordinal()]);
+        }
+    }
+
+    static synchronized WritableMap getInfo() {
+        WritableArray sections = Arguments.createArray();
+        for (Section section : Section.values()) {
+            if (present[section.ordinal()]) {
+                sections.pushString(section.jsName);
+            }
+        }
+
+        WritableMap info = Arguments.createMap();
+        info.putBoolean("enabled", isEnabled());
+        info.putBoolean("restored", restored);
+        info.putDouble("restoreMs", restoreMs);
+        info.putArray("sections", sections);
+        info.putDouble("writes", writes);
+        info.putDouble("bytes", bytes);
+        return info;
+    }
+
+    private static void write() {
+        File target = file;
+        if (target == null) {
+            return;
+        }
+
+        int count = 0;
+        for (boolean p : present) {
+            if (p) {
+                count++;
+            }
+        }
+
+        File tmp = new File(target.getPath() + ".tmp");
+        FileOutputStream stream = null;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(count);
+            for (Section section : Section.values()) {
+                if (present[section.ordinal()]) {
+                    out.writeByte(section.tag);
+                    writeValue(out, values[section.ordinal()]);
+                }
+            }
+            out.flush();
+
+            stream = new FileOutputStream(tmp);
+            buffer.writeTo(stream);
+            stream.getFD().sync();
+            stream.close();
+            stream = null;
+
+            if (!tmp.renameTo(target)) {
+                throw new IOException("rename to " + target + " failed");
+            }
+            writes++;
+            bytes = buffer.size();
+        } catch (IOException e) {
+            SodyoLog.e(TAG, "write(): failed to write snapshot", e);
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the file into the recorded values once; a missing or unreadable
+     * file leaves them alone.
+     */
+    private static void load() {
+        File source = file;
+        if (loaded || source == null) {
+            return;
+        }
+        loaded = true;
+        if (!source.exists() || source.length() > MAX_FILE_BYTES) {
+            return;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(source)));
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                SodyoLog.w(TAG, "load(): %s is not a snapshot of this version, ignoring", source);
+                return;
+            }
+
+            Object[] read = new Object[values.length];
+            boolean[] found = new boolean[present.length];
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                Section section = Section.fromTag(in.readUnsignedByte());
+                if (section == null) {
+                    throw new IOException("unknown section");
+                }
+                read[section.ordinal()] = readValue(in);
+                found[section.ordinal()] = true;
+            }
+
+            // Anything recorded before the SDK came up is newer than the file
+            for (int i = 0; i < values.length; i++) {
+                if (!present[i] && found[i]) {
+                    values[i] = read[i];
+                    present[i] = true;
+                }
+            }
+            bytes = source.length();
+        } catch (IOException e) {
+            SodyoLog.e(TAG, "load(): corrupt snapshot, ignoring", e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(T_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            // Kept apart from doubles so a restored 5 reaches the SDK as 5, not 5.0
+            out.writeByte(T_INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(T_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Number) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(T_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(T_LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else {
+            out.writeByte(T_STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    // Not writeUTF, which is limited to 64 KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FILE_BYTES) {
+            throw new IOException("bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    @Nullable
+    private static Object readValue(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+            case T_NULL:
+                return null;
+            case T_STRING:
+                return readString(in);
+            case T_BOOLEAN:
+                return in.readBoolean();
+            case T_INT:
+                return in.readInt();
+            case T_LONG:
+                return in.readLong();
+            case T_DOUBLE:
+                return in.readDouble();
+            case T_MAP: {
+                int size = in.readInt();
+                Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            case T_LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            default:
+                throw new IOException("unknown value type " + type);
+        }
+    }
+
+    private static Map<String, String> toStringMap(Map<String, Object> map) {
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            result.put(entry.getKey(), entry.getValue() != null ? String.valueOf(entry.getValue()) : null);
+        }
+        return result;
+    }
+}
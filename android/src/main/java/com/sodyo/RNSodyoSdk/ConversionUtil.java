@@ -7,12 +7,22 @@
 
 package com.sodyo.RNSodyoSDK;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -47,13 +57,7 @@ public final class ConversionUtil {
                 result = readableMap.getBoolean(key);
                 break;
             case Number:
-                // Can be int or double.
-                double tmp = readableMap.getDouble(key);
-                if (tmp == (int) tmp) {
-                    result = (int) tmp;
-                } else {
-                    result = tmp;
-                }
+                result = toNumber(readableMap.getDouble(key));
                 break;
             case String:
                 result = readableMap.getString(key);
@@ -73,6 +77,7 @@ public final class ConversionUtil {
 
     /**
      * toMap converts a {@link ReadableMap} into a HashMap.
+     * Nested empty maps are converted to null, like the top level one.
      *
      * @param readableMap The ReadableMap to be conveted.
      * @return A HashMap containing the data that was in the ReadableMap.
@@ -82,22 +87,24 @@ public final class ConversionUtil {
             return null;
         }
 
-        com.facebook.react.bridge.ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
-        if (!iterator.hasNextKey()) {
+        Iterator<Map.Entry<String, Object>> entries = readableMap.getEntryIterator();
+        if (!entries.hasNext()) {
             return null;
         }
 
         Map<String, Object> result = new HashMap<>();
-        while (iterator.hasNextKey()) {
-            String key = iterator.nextKey();
-            result.put(key, toObject(readableMap, key));
+        boolean traced = SodyoTrace.begin("ConversionUtil.toMap");
+        try {
+            convert(new Frame(entries, result));
+        } finally {
+            SodyoTrace.end(traced);
         }
-
         return result;
     }
 
     /**
      * toFlatMap converts a {@link ReadableMap} into a HashMap<string, string>.
+     * Integral numbers are formatted without a fraction ("1", not "1.0").
      *
      * @param readableMap The ReadableMap to be conveted.
      * @return A HashMap containing the data that was in the ReadableMap.
@@ -108,32 +115,32 @@ public final class ConversionUtil {
             return null;
         }
 
-        com.facebook.react.bridge.ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
-        if (!iterator.hasNextKey()) {
+        Iterator<Map.Entry<String, Object>> entries = readableMap.getEntryIterator();
+        if (!entries.hasNext()) {
             return null;
         }
 
         Map<String, String> result = new HashMap<>();
-        while (iterator.hasNextKey()) {
-            String key = iterator.nextKey();
-            ReadableType type = readableMap.getType(key);
-            switch (type) {
-                case String:
-                    result.put(key, readableMap.getString(key));
-                    break;
-                case Number:
-                    result.put(key, String.valueOf(readableMap.getDouble(key)));
-                    break;
-                case Boolean:
-                    result.put(key, String.valueOf(readableMap.getBoolean(key)));
-                    break;
-                case Null:
-                    result.put(key, null);
-                    break;
-                default:
-                    result.put(key, String.valueOf(toObject(readableMap, key)));
-                    break;
+        boolean traced = SodyoTrace.begin("ConversionUtil.toFlatMap");
+        try {
+            while (entries.hasNext()) {
+                Map.Entry<String, Object> entry = entries.next();
+                Object value = entry.getValue();
+
+                if (value == null || value instanceof String) {
+                    result.put(entry.getKey(), (String) value);
+                } else if (value instanceof Number) {
+                    result.put(entry.getKey(), formatNumber((Number) value));
+                } else if (value instanceof ReadableMap) {
+                    result.put(entry.getKey(), String.valueOf(toMap((ReadableMap) value)));
+                } else if (value instanceof ReadableArray) {
+                    result.put(entry.getKey(), String.valueOf(toList((ReadableArray) value)));
+                } else {
+                    result.put(entry.getKey(), String.valueOf(value));
+                }
             }
+        } finally {
+            SodyoTrace.end(traced);
         }
 
         return result;
@@ -151,40 +158,357 @@ public final class ConversionUtil {
         }
 
         List<Object> result = new ArrayList<>(readableArray.size());
-        for (int index = 0; index < readableArray.size(); index++) {
-            ReadableType readableType = readableArray.getType(index);
-            switch (readableType) {
+        boolean traced = SodyoTrace.begin("ConversionUtil.toList");
+        try {
+            convert(new Frame(readableArray, result));
+        } finally {
+            SodyoTrace.end(traced);
+        }
+        return result;
+    }
+
+    /**
+     * A ReadableMap or ReadableArray being copied, together with the POJO it is
+     * copied into. Maps are read through their entry iterator so every value
+     * costs a single lookup instead of getType() plus a typed getter.
+     */
+    private static final class Frame {
+        final Iterator<Map.Entry<String, Object>> entries;
+        final Map<String, Object> map;
+        final ReadableArray array;
+        final List<Object> list;
+        final int size;
+        int index;
+
+        Frame(Iterator<Map.Entry<String, Object>> entries, Map<String, Object> map) {
+            this.entries = entries;
+            this.map = map;
+            this.array = null;
+            this.list = null;
+            this.size = 0;
+        }
+
+        Frame(ReadableArray array, List<Object> list) {
+            this.entries = null;
+            this.map = null;
+            this.array = array;
+            this.list = list;
+            this.size = array.size();
+        }
+    }
+
+    /**
+     * Copies a whole tree using an explicit work stack. Nested containers are
+     * linked into their parent as soon as they are created, so a frame can be
+     * dropped as soon as its source is exhausted.
+     */
+    private static void convert(Frame root) {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+
+            if (frame.entries != null) {
+                if (!frame.entries.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+
+                Map.Entry<String, Object> entry = frame.entries.next();
+                Object value = entry.getValue();
+
+                if (value instanceof ReadableMap) {
+                    Iterator<Map.Entry<String, Object>> nested = ((ReadableMap) value).getEntryIterator();
+                    if (nested.hasNext()) {
+                        Map<String, Object> child = new HashMap<>();
+                        frame.map.put(entry.getKey(), child);
+                        stack.push(new Frame(nested, child));
+                    } else {
+                        frame.map.put(entry.getKey(), null);
+                    }
+                } else if (value instanceof ReadableArray) {
+                    ReadableArray nested = (ReadableArray) value;
+                    List<Object> child = new ArrayList<>(nested.size());
+                    frame.map.put(entry.getKey(), child);
+                    stack.push(new Frame(nested, child));
+                } else if (value instanceof Number) {
+                    frame.map.put(entry.getKey(), toNumber((Number) value));
+                } else {
+                    frame.map.put(entry.getKey(), value);
+                }
+                continue;
+            }
+
+            if (frame.index >= frame.size) {
+                stack.pop();
+                continue;
+            }
+
+            int index = frame.index++;
+            ReadableArray array = frame.array;
+            switch (array.getType(index)) {
                 // Issue #9 fix: add null instead of index string
                 case Null:
-                    result.add(null);
+                    frame.list.add(null);
                     break;
                 case Boolean:
-                    result.add(readableArray.getBoolean(index));
+                    frame.list.add(array.getBoolean(index));
                     break;
                 case Number:
-                    // Can be int or double.
-                    double tmp = readableArray.getDouble(index);
-                    if (tmp == (int) tmp) {
-                        result.add((int) tmp);
-                    } else {
-                        result.add(tmp);
-                    }
+                    frame.list.add(toNumber(array.getDouble(index)));
                     break;
                 case String:
-                    result.add(readableArray.getString(index));
+                    frame.list.add(array.getString(index));
                     break;
                 case Map:
-                    result.add(toMap(readableArray.getMap(index)));
+                    ReadableMap nestedMap = array.getMap(index);
+                    Iterator<Map.Entry<String, Object>> nested = nestedMap != null ? nestedMap.getEntryIterator() : null;
+                    if (nested != null && nested.hasNext()) {
+                        Map<String, Object> child = new HashMap<>();
+                        frame.list.add(child);
+                        stack.push(new Frame(nested, child));
+                    } else {
+                        frame.list.add(null);
+                    }
                     break;
                 // Issue #8 fix: add nested array to result instead of overwriting
                 case Array:
-                    result.add(toList(readableArray.getArray(index)));
+                    ReadableArray nestedArray = array.getArray(index);
+                    if (nestedArray != null) {
+                        List<Object> child = new ArrayList<>(nestedArray.size());
+                        frame.list.add(child);
+                        stack.push(new Frame(nestedArray, child));
+                    } else {
+                        frame.list.add(null);
+                    }
                     break;
                 default:
                     throw new IllegalArgumentException("Could not convert object with index: " + index + ".");
             }
         }
+    }
+
+    /**
+     * JS numbers arrive as doubles. Integral values are narrowed to Integer when
+     * they fit (what the SDK has always received), to Long when they fit exactly,
+     * and stay Double otherwise, so nothing beyond int range is truncated.
+     */
+    static Object toNumber(double value) {
+        int asInt = (int) value;
+        if (asInt == value) {
+            return asInt;
+        }
+
+        long asLong = (long) value;
+        if (asLong == value && asLong >= -MAX_SAFE_INTEGER && asLong <= MAX_SAFE_INTEGER) {
+            return asLong;
+        }
+
+        return value;
+    }
 
+    private static Object toNumber(Number value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return value;
+        }
+        return toNumber(value.doubleValue());
+    }
+
+    private static String formatNumber(Number value) {
+        return toNumber(value).toString();
+    }
+
+    /**
+     * Largest integer magnitude a JS number (IEEE 754 double) represents exactly.
+     */
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    /**
+     * toWritableMap converts a {@link JSONObject} into a {@link WritableMap} without
+     * going through a JSON string. Nesting is walked with an explicit stack, so
+     * depth is only bounded by heap, not by the thread's call stack.
+     *
+     * @param json The JSONObject to be converted.
+     * @return A WritableMap with the same content, empty if json is null.
+     */
+    public static WritableMap toWritableMap(@Nullable JSONObject json) {
+        WritableMap result = Arguments.createMap();
+        if (json != null) {
+            boolean traced = SodyoTrace.begin("ConversionUtil.toWritableMap");
+            try {
+                convertJson(new JsonFrame(json, result, null));
+            } finally {
+                SodyoTrace.end(traced);
+            }
+        }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * toWritableArray converts a {@link JSONArray} into a {@link WritableArray}.
+     *
+     * @param json The JSONArray to be converted.
+     * @return A WritableArray with the same content, empty if json is null.
+     */
+    public static WritableArray toWritableArray(@Nullable JSONArray json) {
+        WritableArray result = Arguments.createArray();
+        if (json != null) {
+            boolean traced = SodyoTrace.begin("ConversionUtil.toWritableArray");
+            try {
+                convertJson(new JsonFrame(json, result, null));
+            } finally {
+                SodyoTrace.end(traced);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A JSON container being copied, together with the writable it is copied into.
+     * Children are attached to their parent only once complete, because native
+     * writables are consumed when put into another writable.
+     */
+    private static final class JsonFrame {
+        final JSONObject object;
+        final Iterator<String> keys;
+        final JSONArray array;
+        final WritableMap map;
+        final WritableArray list;
+        final String parentKey;
+        int index;
+
+        JsonFrame(JSONObject object, WritableMap map, @Nullable String parentKey) {
+            this.object = object;
+            this.keys = object.keys();
+            this.array = null;
+            this.map = map;
+            this.list = null;
+            this.parentKey = parentKey;
+        }
+
+        JsonFrame(JSONArray array, WritableArray list, @Nullable String parentKey) {
+            this.object = null;
+            this.keys = null;
+            this.array = array;
+            this.map = null;
+            this.list = list;
+            this.parentKey = parentKey;
+        }
+    }
+
+    private static void convertJson(JsonFrame root) {
+        ArrayDeque<JsonFrame> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            JsonFrame frame = stack.peek();
+            String key = null;
+            Object value;
+
+            if (frame.object != null && frame.keys.hasNext()) {
+                key = frame.keys.next();
+                value = frame.object.opt(key);
+            } else if (frame.array != null && frame.index < frame.array.length()) {
+                value = frame.array.opt(frame.index++);
+            } else {
+                stack.pop();
+                JsonFrame parent = stack.peek();
+                if (parent != null) {
+                    attachJson(parent, frame);
+                }
+                continue;
+            }
+
+            if (value instanceof JSONObject) {
+                stack.push(new JsonFrame((JSONObject) value, Arguments.createMap(), key));
+            } else if (value instanceof JSONArray) {
+                stack.push(new JsonFrame((JSONArray) value, Arguments.createArray(), key));
+            } else if (frame.map != null) {
+                putJsonValue(frame.map, key, value);
+            } else {
+                pushJsonValue(frame.list, value);
+            }
+        }
+    }
+
+    private static void attachJson(JsonFrame parent, JsonFrame child) {
+        if (parent.map != null) {
+            if (child.map != null) {
+                parent.map.putMap(child.parentKey, child.map);
+            } else {
+                parent.map.putArray(child.parentKey, child.list);
+            }
+        } else if (child.map != null) {
+            parent.list.pushMap(child.map);
+        } else {
+            parent.list.pushArray(child.list);
+        }
+    }
+
+    private static void putJsonValue(WritableMap map, String key, Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            map.putNull(key);
+        } else if (value instanceof String) {
+            map.putString(key, (String) value);
+        } else if (value instanceof Boolean) {
+            map.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            map.putInt(key, ((Number) value).intValue());
+        } else if (value instanceof Number) {
+            Object number = toJsNumber((Number) value);
+            if (number instanceof String) {
+                map.putString(key, (String) number);
+            } else {
+                map.putDouble(key, (Double) number);
+            }
+        } else {
+            map.putString(key, value.toString());
+        }
+    }
+
+    private static void pushJsonValue(WritableArray list, Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            list.pushNull();
+        } else if (value instanceof String) {
+            list.pushString((String) value);
+        } else if (value instanceof Boolean) {
+            list.pushBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            list.pushInt(((Number) value).intValue());
+        } else if (value instanceof Number) {
+            Object number = toJsNumber((Number) value);
+            if (number instanceof String) {
+                list.pushString((String) number);
+            } else {
+                list.pushDouble((Double) number);
+            }
+        } else {
+            list.pushString(value.toString());
+        }
+    }
+
+    /**
+     * Maps a JSON number onto a JS number. Integers outside the exactly
+     * representable range are returned as their decimal string instead of being
+     * silently rounded; floats keep their shortest decimal representation.
+     */
+    private static Object toJsNumber(Number value) {
+        if (value instanceof Long) {
+            long l = value.longValue();
+            return l >= -MAX_SAFE_INTEGER && l <= MAX_SAFE_INTEGER ? (Object) (double) l : Long.toString(l);
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).bitLength() <= 53 ? (Object) value.doubleValue() : value.toString();
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            double d = decimal.doubleValue();
+            return Double.isInfinite(d) ? decimal.toString() : (Object) d;
+        }
+        if (value instanceof Float) {
+            return Double.parseDouble(value.toString());
+        }
+        return value.doubleValue();
+    }
+}
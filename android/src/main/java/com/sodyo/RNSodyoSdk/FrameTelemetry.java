@@ -0,0 +1,254 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Frame pacing of the UI thread while a scanner view is mounted, from
+ * Choreographer frame callbacks.
+ * <p>
+ * Every frame interval goes into a histogram. An interval longer than 1.5
+ * refresh periods is a janky frame, and each refresh period it spans beyond
+ * the first counts as a dropped frame. Scanner attach and camera start/stop
+ * are marked as they happen; janky frames within {@link #CORRELATION_WINDOW_MS}
+ * of a mark are also counted against it, which tells preview work apart from
+ * JS stalls. Opt-in per view, tracking runs on the main thread.
+ */
+final class FrameTelemetry {
+    private static final String TAG = "FrameTelemetry";
+
+    enum Phase {
+        ATTACH("attach"),
+        CAMERA_START("cameraStart"),
+        CAMERA_STOP("cameraStop");
+
+        final String jsName;
+
+        Phase(String jsName) {
+            this.jsName = jsName;
+        }
+    }
+
+    interface Reporter {
+        /**
+         * Called on the main thread with the {@link #snapshot()} of the tracked view.
+         */
+        void onReport(WritableMap stats);
+    }
+
+    static final long CORRELATION_WINDOW_MS = 500;
+
+    private static final long DEFAULT_FRAME_NANOS = 1000000000L / 60;
+
+    // Longer intervals are pauses (host in background, screen off) rather than jank
+    private static final long MAX_FRAME_INTERVAL_NANOS = 1000L * 1000000L;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static final LatencyHistogram frameIntervals = new LatencyHistogram();
+
+    private static volatile boolean running;
+
+    // Guarded by FrameTelemetry.class
+    @Nullable
+    private static Object owner;
+    @Nullable
+    private static Reporter reporter;
+    private static long reportIntervalMs;
+    private static long frameNanos = DEFAULT_FRAME_NANOS;
+    private static long startNanos;
+    private static long stopNanos;
+    private static long lastFrameNanos;
+    private static long frames;
+    private static long jankyFrames;
+    private static long droppedFrames;
+    private static long pauses;
+    private static final long[] phaseNanos = new long[Phase.values().length];
+    private static final long[] phaseEvents = new long[Phase.values().length];
+    private static final long[] phaseJankyFrames = new long[Phase.values().length];
+
+    private static final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (onFrame(frameTimeNanos)) {
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    };
+
+    private static final Runnable report = new Runnable() {
+        @Override
+        public void run() {
+            Reporter current;
+            long interval;
+            synchronized (FrameTelemetry.class) {
+                current = reporter;
+                interval = reportIntervalMs;
+            }
+            if (current == null || !running) {
+                return;
+            }
+
+            current.onReport(snapshot());
+            mainHandler.postDelayed(this, interval);
+        }
+    };
+
+    private FrameTelemetry() {
+    }
+
+    /**
+     * Starts tracking for owner, replacing whatever was tracked before; the
+     * stats are cleared unless owner is already tracked. reporter gets a
+     * snapshot every reportIntervalMs. Main thread only.
+     *
+     * @param refreshRateHz of the display, values <= 0 assume 60Hz
+     */
+    static void start(Object owner, float refreshRateHz, long reportIntervalMs, Reporter reporter) {
+        synchronized (FrameTelemetry.class) {
+            boolean restart = running && FrameTelemetry.owner == owner;
+            FrameTelemetry.owner = owner;
+            FrameTelemetry.reporter = reporter;
+            FrameTelemetry.reportIntervalMs = reportIntervalMs;
+            frameNanos = refreshRateHz > 0 ? (long) (1e9 / refreshRateHz) : DEFAULT_FRAME_NANOS;
+
+            if (!restart) {
+                resetLocked();
+            }
+        }
+
+        mainHandler.removeCallbacks(report);
+        mainHandler.postDelayed(report, reportIntervalMs);
+
+        if (!running) {
+            SodyoLog.i(TAG, "start() - refreshRateHz: %.1f, reportIntervalMs: %s", refreshRateHz, reportIntervalMs);
+            running = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * Stops tracking if owner is the tracked one; the stats stay readable
+     * through {@link #snapshot()} until the next start. Main thread only.
+     */
+    static void stop(Object owner) {
+        synchronized (FrameTelemetry.class) {
+            if (FrameTelemetry.owner != owner || !running) {
+                return;
+            }
+            FrameTelemetry.owner = null;
+            reporter = null;
+            stopNanos = System.nanoTime();
+        }
+
+        SodyoLog.i(TAG, "stop()");
+        running = false;
+        mainHandler.removeCallbacks(report);
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+    }
+
+    /**
+     * Marks phase as happening at atNanos (System.nanoTime()). Any thread, no-op when not tracking.
+     */
+    static void mark(Phase phase, long atNanos) {
+        if (!running) {
+            return;
+        }
+
+        synchronized (FrameTelemetry.class) {
+            phaseNanos[phase.ordinal()] = atNanos;
+            phaseEvents[phase.ordinal()]++;
+        }
+    }
+
+    /**
+     * @return false once tracking stopped and the callback should not be reposted
+     */
+    private static boolean onFrame(long frameTimeNanos) {
+        if (!running) {
+            return false;
+        }
+
+        synchronized (FrameTelemetry.class) {
+            long last = lastFrameNanos;
+            lastFrameNanos = frameTimeNanos;
+            if (last == 0) {
+                return true;
+            }
+
+            long interval = frameTimeNanos - last;
+            if (interval <= 0) {
+                return true;
+            }
+            if (interval > MAX_FRAME_INTERVAL_NANOS) {
+                pauses++;
+                return true;
+            }
+
+            frames++;
+            frameIntervals.recordNanos(interval);
+
+            if (interval * 2 > frameNanos * 3) {
+                jankyFrames++;
+                droppedFrames += Math.max(0, Math.round((double) interval / frameNanos) - 1);
+
+                // Counted against a mark when the late frame overlaps the window after it
+                long frameStart = last;
+                long windowNanos = CORRELATION_WINDOW_MS * 1000000L;
+                for (int i = 0; i < phaseNanos.length; i++) {
+                    if (phaseNanos[i] != 0 && frameTimeNanos >= phaseNanos[i] && frameStart - phaseNanos[i] <= windowNanos) {
+                        phaseJankyFrames[i]++;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    static synchronized WritableMap snapshot() {
+        long end = running ? System.nanoTime() : stopNanos;
+
+        WritableMap phases = Arguments.createMap();
+        for (Phase phase : Phase.values()) {
+            WritableMap stats = Arguments.createMap();
+            stats.putDouble("events", phaseEvents[phase.ordinal()]);
+            stats.putDouble("jankyFrames", phaseJankyFrames[phase.ordinal()]);
+            phases.putMap(phase.jsName, stats);
+        }
+
+        WritableMap stats = Arguments.createMap();
+        stats.putBoolean("tracking", running);
+        stats.putDouble("durationMs", startNanos != 0 ? (end - startNanos) / 1e6 : 0);
+        stats.putDouble("refreshRateHz", 1e9 / frameNanos);
+        stats.putDouble("frames", frames);
+        stats.putDouble("jankyFrames", jankyFrames);
+        stats.putDouble("droppedFrames", droppedFrames);
+        stats.putDouble("jankRatio", frames > 0 ? (double) jankyFrames / frames : 0);
+        stats.putDouble("pauses", pauses);
+        stats.putMap("frameIntervals", SodyoMetrics.toWritableMap(frameIntervals));
+        stats.putMap("phases", phases);
+        return stats;
+    }
+
+    private static void resetLocked() {
+        frameIntervals.reset();
+        startNanos = System.nanoTime();
+        stopNanos = 0;
+        lastFrameNanos = 0;
+        frames = 0;
+        jankyFrames = 0;
+        droppedFrames = 0;
+        pauses = 0;
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = 0;
+            phaseEvents[i] = 0;
+            phaseJankyFrames[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.sodyo.RNSodyoSDK;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, fixed-size latency histogram.
+ * <p>
+ * Bucket i counts samples in [2^i, 2^(i+1)) microseconds, bucket 0 also takes
+ * everything below 1us and the last one everything above ~35 minutes.
+ * Recording is a handful of atomic adds and never allocates, so it is safe on
+ * the SDK callback threads. Percentiles are estimated from bucket bounds and
+ * are accurate to a factor of two, which is enough to spot regressions.
+ */
+final class LatencyHistogram {
+    static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+
+        buckets.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        sumMicros.addAndGet(micros);
+
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * Records the time elapsed since startNanos, as returned by System.nanoTime().
+     */
+    void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    double getMeanMs() {
+        long n = count.get();
+        return n == 0 ? 0 : sumMicros.get() / (double) n / 1000.0;
+    }
+
+    double getMaxMs() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * @param quantile in (0, 1]
+     * @return the upper bound of the bucket holding the quantile, capped at the max seen
+     */
+    double getPercentileMs(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(1L << (i + 1), Math.max(1, maxMicros.get())) / 1000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    /**
+     * Clears all samples. Samples recorded concurrently may be partially kept.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sumMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+}
@@ -0,0 +1,177 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.SystemClock;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Bounded LRU cache of serialized marker content keyed by markerId.
+ * Entries expire after a TTL and are evicted least-recently-used first once
+ * either the entry count or the (estimated) byte size limit is exceeded.
+ * Hits and misses count content callbacks only, see {@link #refresh}.
+ */
+final class MarkerContentCache {
+    static final int DEFAULT_MAX_ENTRIES = 32;
+    static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+    static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+    private static final class Entry {
+        final String json;
+        final long bytes;
+        final long storedAt;
+
+        Entry(String json, long storedAt) {
+            this.json = json;
+            // Strings are UTF-16 in memory
+            this.bytes = 2L * json.length();
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile boolean enabled;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long ttlMs = DEFAULT_TTL_MS;
+
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Updates the limits, evicting entries that no longer fit. Values <= 0 fall
+     * back to the defaults. Disabling the cache drops all entries.
+     */
+    synchronized void configure(boolean enabled, int maxEntries, long maxBytes, long ttlMs) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries > 0 ? maxEntries : DEFAULT_MAX_ENTRIES;
+        this.maxBytes = maxBytes > 0 ? maxBytes : DEFAULT_MAX_BYTES;
+        this.ttlMs = ttlMs > 0 ? ttlMs : DEFAULT_TTL_MS;
+
+        if (!enabled) {
+            entries.clear();
+            totalBytes = 0;
+            return;
+        }
+        trim();
+    }
+
+    /**
+     * @return the cached JSON for markerId, or null on a miss or an expired entry
+     */
+    @Nullable
+    synchronized String get(String markerId) {
+        if (!enabled || markerId == null) {
+            return null;
+        }
+
+        Entry entry = liveEntry(markerId);
+        return entry != null ? entry.json : null;
+    }
+
+    /**
+     * Stores the payload of a content callback for markerId, replacing the
+     * cached one even when it is unchanged so its TTL starts over.
+     *
+     * @return true on a hit, i.e. the replaced entry was live and held the same JSON
+     */
+    synchronized boolean refresh(String markerId, String json) {
+        if (!enabled || markerId == null || json == null) {
+            return false;
+        }
+
+        Entry previous = liveEntry(markerId);
+        boolean hit = previous != null && previous.json.equals(json);
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+
+        put(markerId, json);
+        return hit;
+    }
+
+    synchronized void put(String markerId, String json) {
+        if (!enabled || markerId == null || json == null) {
+            return;
+        }
+
+        Entry entry = new Entry(json, SystemClock.elapsedRealtime());
+        Entry previous = entries.remove(markerId);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+
+        if (entry.bytes > maxBytes) {
+            // Never cache a payload that would flush everything else out
+            return;
+        }
+
+        entries.put(markerId, entry);
+        totalBytes += entry.bytes;
+        trim();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    // Drops the entry of markerId if it has expired
+    @Nullable
+    private Entry liveEntry(String markerId) {
+        Entry entry = entries.get(markerId);
+        if (entry != null && SystemClock.elapsedRealtime() - entry.storedAt > ttlMs) {
+            remove(markerId, entry);
+            evictions++;
+            return null;
+        }
+        return entry;
+    }
+
+    private void remove(String markerId, Entry entry) {
+        entries.remove(markerId);
+        totalBytes -= entry.bytes;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= eldest.bytes;
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects marker detections on the native side and hands them over in batches,
+ * either once per display frame (Choreographer) or on a fixed interval.
+ * All flushes are delivered on the main thread.
+ */
+final class MarkerEventBatcher {
+    static final int DEFAULT_MAX_BATCH_SIZE = 32;
+    static final long DEFAULT_FLUSH_INTERVAL_MS = 0;
+    static final int DEFAULT_MAX_QUEUE_SIZE = 256;
+
+    interface Sink {
+        void onBatch(List<Detection> detections, int dropped);
+    }
+
+    static final class Detection {
+        final String data;
+        final long timestamp;
+
+        Detection(String data, long timestamp) {
+            this.data = data;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final Sink sink;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<Detection> queue = new ArrayDeque<>();
+
+    private volatile boolean enabled;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private long flushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+    private int dropped;
+    private boolean flushScheduled;
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            flush();
+        }
+    };
+
+    private final Runnable postFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    };
+
+    MarkerEventBatcher(Sink sink) {
+        this.sink = sink;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Updates the batching options. Values <= 0 fall back to the defaults, except
+     * flushIntervalMs where 0 means "flush on the next display frame".
+     */
+    void configure(boolean enabled, int maxBatchSize, long flushIntervalMs, int maxQueueSize) {
+        synchronized (queue) {
+            this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : DEFAULT_MAX_BATCH_SIZE;
+            this.flushIntervalMs = flushIntervalMs > 0 ? flushIntervalMs : DEFAULT_FLUSH_INTERVAL_MS;
+            this.maxQueueSize = Math.max(maxQueueSize > 0 ? maxQueueSize : DEFAULT_MAX_QUEUE_SIZE, this.maxBatchSize);
+            this.enabled = enabled;
+        }
+
+        if (!enabled) {
+            // Deliver whatever is still pending so switching modes never loses detections
+            mainHandler.post(flushRunnable);
+        }
+    }
+
+    /**
+     * Queues a detection, dropping the oldest one when the queue is full.
+     */
+    void add(String data) {
+        boolean flushNow;
+
+        synchronized (queue) {
+            if (queue.size() >= maxQueueSize) {
+                queue.pollFirst();
+                dropped++;
+            }
+            queue.addLast(new Detection(data, System.currentTimeMillis()));
+
+            flushNow = queue.size() >= maxBatchSize;
+            if (flushScheduled && !flushNow) {
+                return;
+            }
+            flushScheduled = true;
+        }
+
+        if (flushNow) {
+            mainHandler.removeCallbacks(flushRunnable);
+            mainHandler.post(flushRunnable);
+        } else if (flushIntervalMs > 0) {
+            mainHandler.postDelayed(flushRunnable, flushIntervalMs);
+        } else {
+            mainHandler.post(postFrameCallback);
+        }
+    }
+
+    /**
+     * Delivers up to maxBatchSize pending detections to the sink and reschedules
+     * itself if more are left. Must be called on the main thread.
+     */
+    void flush() {
+        List<Detection> batch;
+        int droppedSinceLastFlush;
+        boolean hasMore;
+
+        synchronized (queue) {
+            flushScheduled = false;
+            if (queue.isEmpty()) {
+                return;
+            }
+
+            int count = Math.min(queue.size(), maxBatchSize);
+            batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(queue.pollFirst());
+            }
+
+            droppedSinceLastFlush = dropped;
+            dropped = 0;
+
+            hasMore = !queue.isEmpty();
+            if (hasMore) {
+                flushScheduled = true;
+            }
+        }
+
+        sink.onBatch(batch, droppedSinceLastFlush);
+
+        if (hasMore) {
+            mainHandler.post(flushRunnable);
+        }
+    }
+
+    /**
+     * Cancels any scheduled flush and discards pending detections.
+     */
+    void shutdown() {
+        synchronized (queue) {
+            enabled = false;
+            queue.clear();
+            dropped = 0;
+            flushScheduled = false;
+        }
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.removeCallbacks(postFrameCallback);
+        // Choreographer instances are per-looper, so the frame callback has to be removed on main
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                Choreographer.getInstance().removeFrameCallback(frameCallback);
+            }
+        });
+    }
+}
@@ -0,0 +1,240 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.SystemClock;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Marker subscription filters registered from JS, evaluated on the SDK callback
+ * thread before an event payload is built.
+ * <p>
+ * With no filters every event passes. Otherwise the first filter that matches
+ * an event decides: the event is delivered unless the same marker was already
+ * delivered through that filter within its suppression window. Events no filter
+ * matches are rejected.
+ */
+final class MarkerFilterSet {
+    enum Kind {
+        DETECT,
+        CONTENT;
+
+        /**
+         * @return the kind for a JS name (detect/content), or null when unknown
+         */
+        @Nullable
+        static Kind fromJsName(@Nullable String name) {
+            if ("detect".equals(name)) {
+                return DETECT;
+            }
+            if ("content".equals(name)) {
+                return CONTENT;
+            }
+            return null;
+        }
+    }
+
+    // Suppression timestamps kept per filter before stale ones are pruned
+    private static final int MAX_TRACKED_MARKERS = 256;
+
+    // Detected marker types remembered for content events, which carry none
+    private static final int MAX_KNOWN_TYPES = 64;
+
+    static final class Filter {
+        final String id;
+        final String[] idPrefixes;
+        final @Nullable Pattern idPattern;
+        final Set<String> markerTypes;
+        final Set<Kind> kinds;
+        final long suppressWindowMs;
+
+        final AtomicLong matched = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+
+        // markerId -> SystemClock.elapsedRealtime() of the last delivery, one map per kind
+        private final ConcurrentHashMap<String, Long> lastDetect = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Long> lastContent = new ConcurrentHashMap<>();
+
+        /**
+         * Empty idPrefixes with a null idPattern match any id, empty markerTypes
+         * any type, including an unknown one; non-empty markerTypes never match an
+         * unknown type. idPattern matches anywhere in the id unless anchored.
+         */
+        Filter(String id, String[] idPrefixes, @Nullable Pattern idPattern, Set<String> markerTypes, Set<Kind> kinds, long suppressWindowMs) {
+            this.id = id;
+            this.idPrefixes = idPrefixes;
+            this.idPattern = idPattern;
+            this.markerTypes = markerTypes;
+            this.kinds = kinds;
+            this.suppressWindowMs = Math.max(0, suppressWindowMs);
+        }
+
+        boolean matches(Kind kind, String markerId, @Nullable String markerType) {
+            if (!kinds.contains(kind)) {
+                return false;
+            }
+            if (!markerTypes.isEmpty() && (markerType == null || !markerTypes.contains(markerType))) {
+                return false;
+            }
+            if (idPrefixes.length == 0 && idPattern == null) {
+                return true;
+            }
+            for (String prefix : idPrefixes) {
+                if (markerId.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return idPattern != null && idPattern.matcher(markerId).find();
+        }
+
+        /**
+         * @return true and records the delivery when markerId is outside the suppression window
+         */
+        boolean tryDeliver(Kind kind, String markerId) {
+            if (suppressWindowMs == 0) {
+                return true;
+            }
+
+            ConcurrentHashMap<String, Long> last = kind == Kind.DETECT ? lastDetect : lastContent;
+            long now = SystemClock.elapsedRealtime();
+            while (true) {
+                Long previous = last.get(markerId);
+                if (previous != null && now - previous < suppressWindowMs) {
+                    return false;
+                }
+                boolean stored = previous == null
+                    ? last.putIfAbsent(markerId, now) == null
+                    : last.replace(markerId, previous, now);
+                if (stored) {
+                    if (last.size() > MAX_TRACKED_MARKERS) {
+                        prune(last, now);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void prune(ConcurrentHashMap<String, Long> last, long now) {
+            Iterator<Long> it = last.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next() >= suppressWindowMs) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    // Copy-on-write: the callback thread reads a snapshot, JS calls replace it
+    private volatile Filter[] filters = new Filter[0];
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final LinkedHashMap<String, String> knownTypes = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_KNOWN_TYPES;
+        }
+    };
+
+    boolean isEmpty() {
+        return filters.length == 0;
+    }
+
+    /**
+     * Adds filter after the existing ones, replacing a filter with the same id in place.
+     */
+    synchronized void add(Filter filter) {
+        Filter[] current = filters;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].id.equals(filter.id)) {
+                Filter[] next = current.clone();
+                next[i] = filter;
+                filters = next;
+                return;
+            }
+        }
+
+        Filter[] next = new Filter[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = filter;
+        filters = next;
+    }
+
+    /**
+     * @return false when there is no filter with that id
+     */
+    synchronized boolean remove(String id) {
+        Filter[] current = filters;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].id.equals(id)) {
+                Filter[] next = new Filter[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                filters = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void clear() {
+        filters = new Filter[0];
+        rejected.set(0);
+        synchronized (knownTypes) {
+            knownTypes.clear();
+        }
+    }
+
+    /**
+     * @param markerType type of a detection; for content events pass null and the
+     *                   type of the marker's last detection is used when known
+     * @return true when the event should be sent to JS
+     */
+    boolean accept(Kind kind, String markerId, @Nullable String markerType) {
+        Filter[] current = filters;
+        if (current.length == 0) {
+            return true;
+        }
+
+        if (kind == Kind.DETECT && markerType != null) {
+            synchronized (knownTypes) {
+                knownTypes.put(markerId, markerType);
+            }
+        } else if (markerType == null) {
+            synchronized (knownTypes) {
+                markerType = knownTypes.get(markerId);
+            }
+        }
+
+        for (Filter filter : current) {
+            if (!filter.matches(kind, markerId, markerType)) {
+                continue;
+            }
+
+            filter.matched.incrementAndGet();
+            if (filter.tryDeliver(kind, markerId)) {
+                return true;
+            }
+            filter.suppressed.incrementAndGet();
+            return false;
+        }
+
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    Filter[] getFilters() {
+        return filters;
+    }
+
+    long getRejected() {
+        return rejected.get();
+    }
+}
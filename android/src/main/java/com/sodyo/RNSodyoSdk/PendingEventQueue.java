@@ -0,0 +1,241 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds events emitted while there is no active React instance (reloads,
+ * cold start) so they can be delivered once JS listens again.
+ * <p>
+ * Backed by a {@link BoundedRingBuffer}; when it is full the overflow policy
+ * decides what goes: the oldest event, the new one, or, for COALESCE, older
+ * events that a later event of the same name supersedes. Every operation that
+ * changes the queue holds its lock, so an event offered during a replay is
+ * queued after the events the replay keeps.
+ */
+final class PendingEventQueue {
+    static final int DEFAULT_CAPACITY = 64;
+
+    enum Overflow {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        COALESCE;
+
+        /**
+         * @return the policy for a JS name (dropOldest/dropNewest/coalesce), or null when unknown
+         */
+        @Nullable
+        static Overflow fromJsName(@Nullable String name) {
+            if (name == null) {
+                return null;
+            }
+            switch (name) {
+                case "dropOldest":
+                    return DROP_OLDEST;
+                case "dropNewest":
+                    return DROP_NEWEST;
+                case "coalesce":
+                    return COALESCE;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    interface Emitter {
+        void emit(String eventName, @Nullable WritableMap params);
+    }
+
+    static final class PendingEvent {
+        final String name;
+        final WritableMap params;
+
+        PendingEvent(String name, @Nullable WritableMap params) {
+            this.name = name;
+            this.params = params;
+        }
+    }
+
+    private final Set<String> replayableEvents;
+
+    private volatile boolean enabled = true;
+    private volatile Overflow overflow = Overflow.DROP_OLDEST;
+    private volatile BoundedRingBuffer<PendingEvent> buffer = new BoundedRingBuffer<>(DEFAULT_CAPACITY);
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    PendingEventQueue(String... replayableEvents) {
+        this.replayableEvents = new HashSet<>();
+        for (String name : replayableEvents) {
+            this.replayableEvents.add(name);
+        }
+    }
+
+    /**
+     * Changes the policy. A new capacity moves the pending events over to a new
+     * buffer, dropping the oldest ones if they do not fit; disabling drops them all.
+     */
+    synchronized void configure(boolean enabled, int capacity, Overflow overflow) {
+        this.overflow = overflow;
+
+        BoundedRingBuffer<PendingEvent> previous = buffer;
+        int size = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+        if (size != previous.capacity()) {
+            BoundedRingBuffer<PendingEvent> next = new BoundedRingBuffer<>(size);
+            buffer = next;
+
+            PendingEvent event;
+            while ((event = previous.poll()) != null) {
+                offerDroppingOldest(next, event);
+            }
+        }
+
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    boolean isReplayable(String eventName) {
+        return enabled && replayableEvents.contains(eventName);
+    }
+
+    boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+
+    /**
+     * Queues an event, applying the overflow policy when the buffer is full.
+     */
+    synchronized void offer(String eventName, @Nullable WritableMap params) {
+        PendingEvent event = new PendingEvent(eventName, params);
+        BoundedRingBuffer<PendingEvent> current = buffer;
+        queued.incrementAndGet();
+
+        if (current.offer(event)) {
+            return;
+        }
+
+        switch (overflow) {
+            case DROP_NEWEST:
+                dropped.incrementAndGet();
+                SodyoMetrics.eventsDropped.incrementAndGet();
+                return;
+            case COALESCE:
+                coalesce(current);
+                offerDroppingOldest(current, event);
+                return;
+            case DROP_OLDEST:
+            default:
+                offerDroppingOldest(current, event);
+        }
+    }
+
+    /**
+     * Emits the pending events named eventName, oldest first, and keeps the
+     * others queued in their original order. A null name replays everything.
+     */
+    synchronized void replay(@Nullable String eventName, Emitter emitter) {
+        BoundedRingBuffer<PendingEvent> current = buffer;
+        if (current.isEmpty()) {
+            return;
+        }
+
+        List<PendingEvent> kept = null;
+        for (int i = current.size(); i > 0; i--) {
+            PendingEvent event = current.poll();
+            if (event == null) {
+                break;
+            }
+
+            if (eventName == null || eventName.equals(event.name)) {
+                replayed.incrementAndGet();
+                emitter.emit(event.name, event.params);
+            } else {
+                if (kept == null) {
+                    kept = new ArrayList<>();
+                }
+                kept.add(event);
+            }
+        }
+
+        if (kept != null) {
+            for (PendingEvent event : kept) {
+                offerDroppingOldest(current, event);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        BoundedRingBuffer<PendingEvent> current = buffer;
+        while (current.poll() != null) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    int size() {
+        return buffer.size();
+    }
+
+    long getQueued() {
+        return queued.get();
+    }
+
+    long getReplayed() {
+        return replayed.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private void offerDroppingOldest(BoundedRingBuffer<PendingEvent> target, PendingEvent event) {
+        while (!target.offer(event)) {
+            if (target.poll() != null) {
+                dropped.incrementAndGet();
+                SodyoMetrics.eventsDropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drains the buffer and puts back only the latest event of each name, in the
+     * order those latest events were queued.
+     */
+    private void coalesce(BoundedRingBuffer<PendingEvent> target) {
+        List<PendingEvent> drained = new ArrayList<>(target.capacity());
+        PendingEvent event;
+        while ((event = target.poll()) != null) {
+            drained.add(event);
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<PendingEvent> survivors = new ArrayList<>();
+        for (int i = drained.size() - 1; i >= 0; i--) {
+            PendingEvent candidate = drained.get(i);
+            if (seen.add(candidate.name)) {
+                survivors.add(candidate);
+            } else {
+                coalesced.incrementAndGet();
+            }
+        }
+
+        for (int i = survivors.size() - 1; i >= 0; i--) {
+            offerDroppingOldest(target, survivors.get(i));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.Bundle;
+import android.view.View;
+
+import javax.annotation.Nullable;
+
+import com.sodyo.sdk.SodyoScannerFragment;
+
+/**
+ * The SDK scanner fragment, with the hooks the scanner view and
+ * {@link ScannerCameraController} need.
+ * <p>
+ * The controller calls startCamera()/stopCamera() on its camera thread, one
+ * at a time. The lifecycle callbacks stay on the main thread and never wait
+ * for that thread: they only set flags it reads, and hand their own camera
+ * work to it. Camera calls after the view was destroyed are dropped, so a
+ * start still queued on the camera thread cannot reopen the camera of a
+ * removed fragment. What the SDK itself does with the camera inside
+ * super.onResume()/onPause() is outside our reach and can overlap a
+ * controller call in flight; the controller follows host pause/resume with
+ * its own stop/start, so the camera ends up in the state it decided.
+ * <p>
+ * A fragment parked in {@link ScannerFragmentPool} stays added and so is
+ * resumed with its host; it stops the camera its onResume opened on the
+ * camera thread right away, since android.app.Fragment cannot be held at
+ * STARTED with setMaxLifecycle.
+ * <p>
+ * Public with the implicit no-argument constructor so the framework can
+ * recreate it.
+ */
+public class RNSodyoScannerFragment extends SodyoScannerFragment {
+    private static final String TAG = "RNSodyoScannerFragment";
+
+    interface ViewListener {
+        /**
+         * Called on the main thread once the fragment has created its view.
+         */
+        void onViewCreated(RNSodyoScannerFragment fragment);
+    }
+
+    // Set on the main thread, read on the camera thread
+    private volatile boolean viewDestroyed;
+
+    // Main thread only
+    private boolean parked;
+    @Nullable
+    private ViewListener viewListener;
+
+    private final Runnable stopParkedCamera = new Runnable() {
+        @Override
+        public void run() {
+            stopCamera();
+        }
+    };
+
+    /**
+     * Marks the fragment as parked, with no scanner view showing it. Main thread only.
+     */
+    void setParked(boolean parked) {
+        this.parked = parked;
+    }
+
+    /**
+     * Main thread only, null to stop listening.
+     */
+    void setViewListener(@Nullable ViewListener listener) {
+        viewListener = listener;
+    }
+
+    @Override
+    public void startCamera() {
+        if (viewDestroyed) {
+            SodyoLog.w(TAG, "startCamera(): view destroyed, ignoring");
+            return;
+        }
+        super.startCamera();
+    }
+
+    @Override
+    public void stopCamera() {
+        if (viewDestroyed) {
+            return;
+        }
+        super.stopCamera();
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        viewDestroyed = false;
+
+        ViewListener listener = viewListener;
+        if (listener != null) {
+            listener.onViewCreated(this);
+        }
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (parked) {
+            SodyoLog.i(TAG, "onResume(): parked, stopping the camera");
+            ScannerCameraController.postToCameraThread(stopParkedCamera);
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        viewDestroyed = true;
+        super.onDestroyView();
+    }
+}
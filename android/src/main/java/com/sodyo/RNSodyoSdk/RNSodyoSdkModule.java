@@ -1,40 +1,49 @@
 package com.sodyo.RNSodyoSDK;
 
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactMethod;
-import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ActivityEventListener;
 import com.facebook.react.bridge.BaseActivityEventListener;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.facebook.react.bridge.UiThreadUtil;
 
+import java.io.File;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import javax.annotation.Nullable;
 
-import android.util.Log;
 import android.content.Intent;
 import android.app.Application;
 import android.app.Activity;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import com.sodyo.sdk.Sodyo;
-import com.sodyo.sdk.SodyoInitCallback;
-import com.sodyo.sdk.SodyoScannerActivity;
 import com.sodyo.sdk.SodyoScannerCallback;
 import com.sodyo.sdk.SodyoMarkerContentCallback;
 import com.sodyo.sdk.SodyoModeCallback;
 import com.sodyo.app_sdk.data.SettingsHelper;
 
-public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
+public class RNSodyoSdkModule extends RNSodyoSdkSpec {
   public static enum SodyoEnv {
     DEV(3),
     QA(0),
@@ -51,20 +60,114 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
     }
   }
 
+  public static final String NAME = "RNSodyoSdk";
+
   private static final int SODYO_SCANNER_REQUEST_CODE = 2222;
 
   private static final String TAG = "SodyoSDK";
 
+  // Promise rejection codes
+  private static final String E_NO_ACTIVITY = "E_NO_ACTIVITY";
+  private static final String E_NOT_INITIALIZED = "E_NOT_INITIALIZED";
+  private static final String E_INIT_FAILED = "E_INIT_FAILED";
+  private static final String E_INVALID_ENV = "E_INVALID_ENV";
+  private static final String E_INVALID_FILTER = "E_INVALID_FILTER";
+  private static final String E_INVALID_QUERY = "E_INVALID_QUERY";
+
+  private static final String SCAN_JOURNAL_DIR = "sodyo-journal";
+
+  // Order in which applyConfiguration applies its sections: scanner setup first, user data last
+  private static final String[] CONFIGURATION_SECTIONS = {
+      "env",
+      "scannerParams",
+      "appUserId",
+      "customAdLabel",
+      "sodyoLogoVisible",
+      "userInfo",
+      "dynamicProfile",
+  };
+
+  // Static so events queued by a module instance that is going away reach the next one
+  private static final PendingEventQueue pendingEvents = new PendingEventQueue(
+      "EventMarkerDetectSuccess",
+      "EventMarkerDetectBatch",
+      "EventMarkerContent",
+      "ModeChangeCallback"
+  );
+
+  // Static so a module instance being replaced never maps the same segment as the new one
+  private static final ScanJournal scanJournal = new ScanJournal();
+
   private final ReactApplicationContext reactContext;
 
+  private volatile boolean structuredMarkerContent;
+
+  private final MarkerContentCache markerContentCache = new MarkerContentCache();
+
+  private final ConfigDeltaTracker configDeltaTracker = new ConfigDeltaTracker();
+
+  private final MarkerFilterSet markerFilters = new MarkerFilterSet();
+
+  // SDK setters, start() and performMarker() run here in call order, see SodyoCommandQueue
+  private final SodyoCommandQueue commandQueue = new SodyoCommandQueue();
+
+  // Scanning state last applied through the queue, null when unknown
+  private volatile Boolean scanningApplied;
+
+  private final AtomicInteger markerFilterIds = new AtomicInteger();
+
+  private final ScanningGovernor scanningGovernor;
+
+  private final MarkerEventBatcher markerDetectBatcher = new MarkerEventBatcher(new MarkerEventBatcher.Sink() {
+    @Override
+    public void onBatch(List<MarkerEventBatcher.Detection> detections, int dropped) {
+      WritableArray items = Arguments.createArray();
+      for (MarkerEventBatcher.Detection detection : detections) {
+        WritableMap item = Arguments.createMap();
+        item.putString("data", detection.data);
+        item.putDouble("timestamp", detection.timestamp);
+        items.pushMap(item);
+      }
+
+      WritableMap params = Arguments.createMap();
+      params.putArray("items", items);
+      params.putInt("dropped", dropped);
+      sendEvent("EventMarkerDetectBatch", params);
+    }
+  });
+
+  private final SodyoCallback sodyoCallback = new SodyoCallback();
+
+  private final PendingEventQueue.Emitter pendingEventEmitter = new PendingEventQueue.Emitter() {
+    @Override
+    public void emit(String eventName, @Nullable WritableMap params) {
+      emitEvent(eventName, params);
+    }
+  };
+
+  private final Handler metricsHandler = new Handler(Looper.getMainLooper());
+
+  private volatile long metricsIntervalMs;
+
+  private final Runnable metricsRunnable = new Runnable() {
+    @Override
+    public void run() {
+      sendEvent("EventSodyoMetrics", SodyoMetrics.toWritableMap());
+      long interval = metricsIntervalMs;
+      if (interval > 0) {
+        metricsHandler.postDelayed(this, interval);
+      }
+    }
+  };
+
   private final ActivityEventListener mActivityEventListener = new BaseActivityEventListener() {
 
     @Override
     public void onActivityResult(Activity activity, int requestCode, int resultCode, Intent intent) {
-      Log.i(TAG, "onActivityResult() - requestCode: " + requestCode + ", resultCode: " + resultCode + ", activity: " + activity);
+      SodyoLog.i(TAG, "onActivityResult() - requestCode: %s, resultCode: %s, activity: %s", requestCode, resultCode, activity);
 
       if (requestCode == SODYO_SCANNER_REQUEST_CODE) {
-        Log.i(TAG, "onActivityResult() - scanner request code matched, sending EventCloseSodyoScanner");
+        SodyoLog.i(TAG, "onActivityResult() - scanner request code matched, sending EventCloseSodyoScanner");
         sendEvent("EventCloseSodyoScanner", null);
       }
     }
@@ -73,7 +176,37 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
   public RNSodyoSdkModule(ReactApplicationContext reactContext) {
     super(reactContext);
     this.reactContext = reactContext;
+    SodyoLog.initDefaultLevel(reactContext);
     this.reactContext.addActivityEventListener(mActivityEventListener);
+    SodyoInitializer.setErrorListener(sodyoCallback);
+    SodyoInitializer.setCommandQueue(commandQueue);
+    scanJournal.setDirectory(new File(reactContext.getFilesDir(), SCAN_JOURNAL_DIR));
+    ConfigSnapshotStore.setDirectory(reactContext.getFilesDir());
+    scanningGovernor = new ScanningGovernor(reactContext, new ScanningGovernor.Actions() {
+      @Override
+      public void applyScannerParams(Map<String, String> params) {
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+          // Governor params follow the device state, a cold start begins unthrottled
+          submitScannerParam(entry.getKey(), entry.getValue(), false, null);
+        }
+      }
+
+      @Override
+      public void setScanning(boolean scanning) {
+        commandQueue.submit(new ScanningCommand(scanning, false), null);
+      }
+
+      @Override
+      public void onStateChange(WritableMap event) {
+        sendEvent("EventScanningGovernor", event);
+      }
+    });
+
+    // After a JS reload, or a native preInit that already finished, the SDK is up before init() is called
+    if (SodyoInitializer.getState() == SodyoInitializer.State.READY) {
+      installSodyoCallbacks();
+      ConfigSnapshotStore.seed(configDeltaTracker);
+    }
   }
 
   // Issue #4 fix: remove listener on destroy to prevent leak
@@ -81,74 +214,36 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
   public void onCatalystInstanceDestroy() {
     super.onCatalystInstanceDestroy();
     reactContext.removeActivityEventListener(mActivityEventListener);
+    markerDetectBatcher.shutdown();
+    commandQueue.shutdown();
+    scanningGovernor.shutdown();
+    metricsIntervalMs = 0;
+    metricsHandler.removeCallbacks(metricsRunnable);
+    SodyoInitializer.removeErrorListener(sodyoCallback);
+    SodyoInitializer.removeCommandQueue(commandQueue);
   }
 
   @Override
   public String getName() {
-    return "RNSodyoSdk";
+    return NAME;
   }
 
-  private class SodyoCallback implements SodyoScannerCallback, SodyoInitCallback, SodyoMarkerContentCallback, SodyoModeCallback {
-
-      private Callback successCallback;
-      private Callback errorCallback;
-      private boolean isCallbackUsed;
-
-      public SodyoCallback(Callback successCallback, Callback errorCallback) {
-          Log.d(TAG, "SodyoCallback() - successCallback: " + (successCallback != null ? "provided" : "nil") + ", errorCallback: " + (errorCallback != null ? "provided" : "nil"));
-          this.successCallback = successCallback;
-          this.errorCallback = errorCallback;
-      }
-
-      /**
-       * SodyoInitCallback implementation
-       */
-      public void onSodyoAppLoadSuccess() {
-          Log.i(TAG, "onSodyoAppLoadSuccess - successCallback: " + (this.successCallback != null ? "provided" : "nil") + ", isCallbackUsed: " + this.isCallbackUsed);
-
-          if (this.successCallback == null || this.isCallbackUsed) {
-            Log.w(TAG, "onSodyoAppLoadSuccess - skipping: callback=" + (this.successCallback == null ? "null" : "exists") + ", used=" + this.isCallbackUsed);
-            return;
-          }
-
-          this.successCallback.invoke();
-          this.isCallbackUsed = true;
-
-          SodyoCallback callbackClosure = new SodyoCallback(null, null);
-          Sodyo.getInstance().setSodyoScannerCallback(callbackClosure);
-          Sodyo.getInstance().setSodyoMarkerContentCallback(callbackClosure);
-          Sodyo.getInstance().setSodyoModeCallback(callbackClosure);
-      }
-
-      /**
-       * SodyoInitCallback implementation
-       */
-      public void onSodyoAppLoadFailed(String error) {
-          Log.e(TAG, "onSodyoAppLoadFailed - error: " + error + ", errorCallback: " + (this.errorCallback != null ? "provided" : "nil") + ", isCallbackUsed: " + this.isCallbackUsed);
-
-          if (this.errorCallback == null || this.isCallbackUsed) {
-            Log.w(TAG, "onSodyoAppLoadFailed - skipping: callback=" + (this.errorCallback == null ? "null" : "exists") + ", used=" + this.isCallbackUsed);
-            return;
-          }
-
-          this.errorCallback.invoke(error);
-          this.isCallbackUsed = true;
-      }
+  private class SodyoCallback implements SodyoScannerCallback, SodyoMarkerContentCallback, SodyoModeCallback, SodyoInitializer.ErrorListener {
 
       public void permissionError(String err1, String err2) {
-          Log.w(TAG, "permissionError - err1: " + err1 + ", err2: " + err2);
+          SodyoLog.w(TAG, "permissionError - err1: %s, err2: %s", err1, err2);
       }
 
       /**
-       * SodyoInitCallback implementation
+       * SodyoInitCallback.sodyoError, forwarded by SodyoInitializer
        */
       @Override
-      public void sodyoError(Error err) {
-          Log.e(TAG, "sodyoError - error: " + err + ", message: " + (err != null ? err.getMessage() : "null"));
-
+      public void onSodyoError(Error err) {
+          boolean traced = SodyoTrace.begin("SodyoCallback.onSodyoError");
           WritableMap params = Arguments.createMap();
-          params.putString("error", err.getMessage());
+          params.putString("error", err != null ? err.getMessage() : null);
           sendEvent("EventSodyoError", params);
+          SodyoTrace.end(traced);
       }
 
       /**
@@ -156,27 +251,46 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
        */
       @Override
       public void onMarkerDetect(String markerType, String data, String error) {
-          Log.i(TAG, "onMarkerDetect() - markerType: " + markerType + ", data: " + data + ", error: " + error);
+          // A detection opens the flow that its content and their JS dispatch are tagged with
+          int flow = error == null && data != null ? SodyoTrace.beginFlow(data) : 0;
+          boolean traced = SodyoTrace.begin("SodyoCallback.onMarkerDetect", flow);
+          SodyoLog.i(TAG, "onMarkerDetect() - markerType: %s, data: %s, error: %s", markerType, data, error);
 
           if (data == null) {
               data = "null";
           }
 
-          String message;
-
           if (error == null) {
-              message = "SodyoScannerCallback.onMarkerDetect  data=\"" + data + "\"";
-              Log.i(TAG, message);
+              SodyoLog.i(TAG, "SodyoScannerCallback.onMarkerDetect  data=\"%s\"", data);
+              SodyoMetrics.onMarkerDetect();
+              scanningGovernor.onDetect();
+
+              if (scanJournal.isEnabled()) {
+                  scanJournal.append(ScanJournal.Kind.DETECT, data, markerType, null);
+              }
+
+              if (!markerFilters.accept(MarkerFilterSet.Kind.DETECT, data, markerType)) {
+                  SodyoLog.d(TAG, "onMarkerDetect() - filtered out: %s", data);
+                  SodyoTrace.end(traced);
+                  return;
+              }
+
+              if (markerDetectBatcher.isEnabled()) {
+                  markerDetectBatcher.add(data);
+                  SodyoTrace.end(traced);
+                  return;
+              }
+
               WritableMap params = Arguments.createMap();
               params.putString("data", data);
-              sendEvent("EventMarkerDetectSuccess", params);
+              sendEvent("EventMarkerDetectSuccess", params, flow);
           } else {
-              message = "SodyoScannerCallback.onMarkerDetect  data=\"" + data + "\" error=\"" + error + "\"";
-              Log.e(TAG, message);
+              SodyoLog.e(TAG, "SodyoScannerCallback.onMarkerDetect  data=\"%s\" error=\"%s\"", data, error);
               WritableMap params = Arguments.createMap();
               params.putString("error", error);
               sendEvent("EventMarkerDetectError", params);
           }
+          SodyoTrace.end(traced);
       }
 
       /**
@@ -184,18 +298,50 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
        */
       @Override
       public void onMarkerContent(String markerId, JSONObject data) {
-        Log.i(TAG, "onMarkerContent() - markerId: " + markerId + ", data: " + data);
+        int flow = SodyoTrace.claimFlow(markerId);
+        boolean traced = SodyoTrace.begin("SodyoCallback.onMarkerContent", flow);
+        SodyoLog.i(TAG, "onMarkerContent() - markerId: %s, data: %s", markerId, data);
+        SodyoMetrics.onMarkerContent();
+
+        if (markerId != null && scanJournal.isEnabled()) {
+          scanJournal.append(ScanJournal.Kind.CONTENT, markerId, null, data != null ? data.toString() : null);
+        }
+
+        if (markerId != null && !markerFilters.accept(MarkerFilterSet.Kind.CONTENT, markerId, null)) {
+          SodyoLog.d(TAG, "onMarkerContent() - filtered out: %s", markerId);
+          SodyoTrace.end(traced);
+          SodyoTrace.endFlow(flow);
+          return;
+        }
 
         WritableMap params = Arguments.createMap();
         params.putString("markerId", markerId);
 
-        if (data == null) {
+        String json = null;
+        if (markerContentCache.isEnabled()) {
+          json = data == null ? "{}" : data.toString();
+          // Always stored, so the cache holds the latest payload
+          if (markerContentCache.refresh(markerId, json)) {
+            // JS already holds this content, only tell it which marker was hit
+            params.putBoolean("cached", true);
+            sendEvent("EventMarkerContent", params, flow);
+            SodyoTrace.end(traced);
+            SodyoTrace.endFlow(flow);
+            return;
+          }
+        }
+
+        if (structuredMarkerContent) {
+          params.putMap("data", ConversionUtil.toWritableMap(data));
+        } else if (data == null) {
           params.putString("data", "{}");
         } else {
-          params.putString("data", data.toString());
+          params.putString("data", json != null ? json : data.toString());
         }
 
-        sendEvent("EventMarkerContent", params);
+        sendEvent("EventMarkerContent", params, flow);
+        SodyoTrace.end(traced);
+        SodyoTrace.endFlow(flow);
       }
 
       /**
@@ -203,7 +349,8 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
        */
       @Override
       public void onModeChange(SettingsHelper.ScannerViewMode oldMode, SettingsHelper.ScannerViewMode newMode) {
-        Log.i(TAG, "onModeChange() - oldMode: " + oldMode + ", newMode: " + newMode);
+        boolean traced = SodyoTrace.begin("SodyoCallback.onModeChange");
+        SodyoLog.i(TAG, "onModeChange() - oldMode: %s, newMode: %s", oldMode, newMode);
 
         WritableMap params = Arguments.createMap();
 
@@ -211,210 +358,533 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
         params.putString("newMode", newMode.toString());
 
         sendEvent("ModeChangeCallback", params);
+        SodyoTrace.end(traced);
       }
   }
 
-  // Issue #7 fix: invoke success callback if already initialized
+  // Issue #7 fix: resolve if already initialized
   @ReactMethod
-  public void init(final String apiKey, Callback successCallback, Callback errorCallback) {
-      Log.i(TAG, "init() - apiKey: " + apiKey + ", successCallback: " + (successCallback != null ? "provided" : "nil") + ", errorCallback: " + (errorCallback != null ? "provided" : "nil"));
+  public void init(final String apiKey, final Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.init");
+      SodyoLog.i(TAG, "init() - apiKey: %s", apiKey);
 
-      if (Sodyo.isInitialized()) {
-          Log.i(TAG, "init(): already initialized, invoking success callback directly");
-          if (successCallback != null) {
-              successCallback.invoke();
+      // Concurrent calls, and a native preInit still in flight, share one Sodyo.init
+      SodyoInitializer.init((Application) reactContext.getApplicationContext(), apiKey, new SodyoInitializer.InitListener() {
+          @Override
+          public void onReady() {
+              installSodyoCallbacks();
+              ConfigSnapshotStore.seed(configDeltaTracker);
+
+              // The SDK init alone, not the time this call waited for one already in flight
+              WritableMap timing = Arguments.createMap();
+              timing.putDouble("durationMs", SodyoInitializer.getInitDurationMs());
+              promise.resolve(timing);
           }
-          return;
-      }
-
-      final SodyoCallback callbackClosure = new SodyoCallback(successCallback, errorCallback);
 
-      UiThreadUtil.runOnUiThread(new Runnable() {
           @Override
-          public void run() {
-              Sodyo.init(
-                      (Application) reactContext.getApplicationContext(),
-                      apiKey,
-                      callbackClosure
-              );
+          public void onFailed(String error) {
+              promise.reject(E_INIT_FAILED, error);
           }
       });
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getInitState(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getInitState");
+      WritableMap result = Arguments.createMap();
+      result.putString("state", SodyoInitializer.getState().name().toLowerCase());
+      result.putString("error", SodyoInitializer.getLastError());
+      promise.resolve(result);
+      SodyoTrace.end(traced);
+  }
+
+  private void installSodyoCallbacks() {
+      SodyoBackends.get().setCallbacks(sodyoCallback, sodyoCallback, sodyoCallback);
   }
 
   // Issue #1 fix: null-check getCurrentActivity()
   @ReactMethod
-  public void start() {
-      Log.i(TAG, "start() - launching scanner");
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "start() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "start(): current activity is null, aborting");
-          return;
-      }
-      Intent intent = new Intent(activity, SodyoScannerActivity.class);
-      Log.d(TAG, "start() - starting SodyoScannerActivity with requestCode: " + SODYO_SCANNER_REQUEST_CODE);
-      activity.startActivityForResult(intent, SODYO_SCANNER_REQUEST_CODE);
+  public void start(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.start");
+      SodyoLog.i(TAG, "start() - launching scanner");
+      // Queued so setters called before start() are applied when the scanner opens
+      commandQueue.submit(new ActivityCommand(null, "start") {
+          @Override
+          void apply(Activity activity) {
+              SodyoLog.d(TAG, "start() - starting SodyoScannerActivity with requestCode: %s", SODYO_SCANNER_REQUEST_CODE);
+              SodyoMetrics.onScanStart();
+              SodyoBackends.get().openScanner(activity, SODYO_SCANNER_REQUEST_CODE);
+          }
+
+          @Override
+          void applied() {
+              // The scanner activity starts scanning on its own
+              scanningApplied = null;
+              scanningGovernor.onScanningChanged(true);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void close() {
-      Log.i(TAG, "close() - closing scanner");
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "close() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "close(): current activity is null, aborting");
-          return;
+  public void close(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.close");
+      SodyoLog.i(TAG, "close() - closing scanner");
+      commandQueue.submit(new ActivityCommand(null, "close") {
+          @Override
+          void apply(Activity activity) {
+              SodyoBackends.get().closeScanner(activity, SODYO_SCANNER_REQUEST_CODE);
+          }
+
+          @Override
+          void applied() {
+              scanningApplied = null;
+              scanningGovernor.onScanningChanged(false);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * An SDK call that needs the current activity. It runs on the main thread,
+   * and the command waits for it, so it keeps its place among the queued calls
+   * and durationMs is the time of the call.
+   */
+  private abstract class ActivityCommand extends SodyoCommandQueue.Command {
+      private final String method;
+
+      ActivityCommand(@Nullable String key, String method) {
+          super(key);
+          this.method = method;
+      }
+
+      /**
+       * Runs on the main thread.
+       */
+      abstract void apply(Activity activity);
+
+      /**
+       * Runs on the command thread once {@link #apply(Activity)} returned.
+       */
+      void applied() {
+      }
+
+      @Override
+      Object run() {
+          final Activity activity = getCurrentActivity();
+          SodyoLog.d(TAG, "%s() - currentActivity: %s", method, activity);
+          if (activity == null) {
+              SodyoLog.e(TAG, "%s(): current activity is null, aborting", method);
+              throw new SodyoCommandQueue.Rejection(E_NO_ACTIVITY, method + "(): current activity is null");
+          }
+
+          final CountDownLatch done = new CountDownLatch(1);
+          final RuntimeException[] failure = new RuntimeException[1];
+          UiThreadUtil.runOnUiThread(new Runnable() {
+              @Override
+              public void run() {
+                  try {
+                      apply(activity);
+                  } catch (RuntimeException e) {
+                      failure[0] = e;
+                  } finally {
+                      done.countDown();
+                  }
+              }
+          });
+
+          try {
+              done.await();
+          } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IllegalStateException(method + "() interrupted", e);
+          }
+          if (failure[0] != null) {
+              throw failure[0];
+          }
+          applied();
+          return null;
       }
-      activity.finishActivity(SODYO_SCANNER_REQUEST_CODE);
   }
 
   // Issue #6 fix: guard against uninitialized SDK
   @ReactMethod
-  public void setUserInfo(ReadableMap userInfo) {
-      Log.i(TAG, "setUserInfo() - userInfo: " + userInfo);
+  public void setUserInfo(final ReadableMap userInfo, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setUserInfo");
+      SodyoLog.i(TAG, "setUserInfo() - userInfo: %s", userInfo);
+      commandQueue.submit(new SodyoCommandQueue.Command("userInfo") {
+          @Override
+          Object run() {
+              if (!applyUserInfo(userInfo)) {
+                  throw new SodyoCommandQueue.Rejection(E_NOT_INITIALIZED, "setUserInfo(): SDK not initialized yet");
+              }
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
 
-      if (!Sodyo.isInitialized()) {
-          Log.w(TAG, "setUserInfo(): SDK not initialized yet, aborting");
-          return;
+  private boolean applyUserInfo(@Nullable ReadableMap userInfo) {
+      if (!SodyoBackends.get().isInitialized()) {
+          SodyoLog.w(TAG, "setUserInfo(): SDK not initialized yet, aborting");
+          return false;
       }
 
       if(userInfo != null) {
-        Log.d(TAG, "setUserInfo() - converted map: " + ConversionUtil.toMap(userInfo));
-        Sodyo.getInstance().setUserInfo(ConversionUtil.toMap(userInfo));
+        Map<String, Object> userInfoMap = ConversionUtil.toMap(userInfo);
+        SodyoLog.d(TAG, "setUserInfo() - converted map: %s", userInfoMap);
+
+        if (configDeltaTracker.diff(ConfigDeltaTracker.Section.USER_INFO, userInfoMap).unchanged) {
+          SodyoLog.d(TAG, "setUserInfo() - unchanged, skipping");
+          configDeltaTracker.skipped(ConfigDeltaTracker.Section.USER_INFO);
+          return true;
+        }
+
+        // The SDK has no per-key setter for user info, so any change is pushed in full
+        SodyoBackends.get().setUserInfo(userInfoMap);
+        configDeltaTracker.applied(ConfigDeltaTracker.Section.USER_INFO, userInfoMap, true);
+        ConfigSnapshotStore.record(ConfigSnapshotStore.Section.USER_INFO, userInfoMap);
       } else {
-        Log.w(TAG, "setUserInfo() - userInfo is null, skipping");
+        SodyoLog.w(TAG, "setUserInfo() - userInfo is null, skipping");
       }
+      return true;
   }
 
   @ReactMethod
-  public void setCustomAdLabel(String label) {
-      Log.i(TAG, "setCustomAdLabel() - label: " + label);
-      Sodyo.setCustomAdLabel(label);
+  public void setCustomAdLabel(final String label, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setCustomAdLabel");
+      SodyoLog.i(TAG, "setCustomAdLabel() - label: %s", label);
+      commandQueue.submit(new SodyoCommandQueue.Command("customAdLabel") {
+          @Override
+          Object run() {
+              applyCustomAdLabel(label);
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void setAppUserId(String userId) {
-      Log.i(TAG, "setAppUserId() - userId: " + userId);
-      Sodyo.setAppUserId(userId);
+  public void setAppUserId(final String userId, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setAppUserId");
+      SodyoLog.i(TAG, "setAppUserId() - userId: %s", userId);
+      commandQueue.submit(new SodyoCommandQueue.Command("appUserId") {
+          @Override
+          Object run() {
+              applyAppUserId(userId);
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
+
+  private void applyCustomAdLabel(@Nullable String label) {
+      SodyoBackends.get().setCustomAdLabel(label);
+      ConfigSnapshotStore.record(ConfigSnapshotStore.Section.CUSTOM_AD_LABEL, label);
+  }
+
+  private void applyAppUserId(@Nullable String userId) {
+      SodyoBackends.get().setAppUserId(userId);
+      ConfigSnapshotStore.record(ConfigSnapshotStore.Section.APP_USER_ID, userId);
   }
 
   @ReactMethod
-  public void setScannerParams(ReadableMap scannerPreferences) {
-      Log.i(TAG, "setScannerParams() - scannerPreferences: " + scannerPreferences);
+  public void setScannerParams(final ReadableMap scannerPreferences, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setScannerParams");
+      SodyoLog.i(TAG, "setScannerParams() - scannerPreferences: %s", scannerPreferences);
+      commandQueue.submit(new SodyoCommandQueue.Command("scannerParams") {
+          @Override
+          Object run() {
+              applyScannerParams(scannerPreferences);
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
+
+  private void applyScannerParams(@Nullable ReadableMap scannerPreferences) {
       Map<String, String> flatMap = ConversionUtil.toFlatMap(scannerPreferences);
-      Log.d(TAG, "setScannerParams() - flatMap: " + flatMap);
-      Sodyo.setScannerParams(flatMap);
+      SodyoLog.d(TAG, "setScannerParams() - flatMap: %s", flatMap);
+
+      ConfigDeltaTracker.Delta<String> delta = configDeltaTracker.diff(ConfigDeltaTracker.Section.SCANNER_PARAMS, flatMap);
+      if (delta.unchanged) {
+          SodyoLog.d(TAG, "setScannerParams() - unchanged, skipping");
+          configDeltaTracker.skipped(ConfigDeltaTracker.Section.SCANNER_PARAMS);
+          return;
+      }
+
+      if (delta.full) {
+          SodyoBackends.get().setScannerParams(flatMap);
+      } else {
+          for (Map.Entry<String, String> entry : delta.changed.entrySet()) {
+              SodyoBackends.get().addScannerParam(entry.getKey(), entry.getValue());
+          }
+      }
+      configDeltaTracker.applied(ConfigDeltaTracker.Section.SCANNER_PARAMS, flatMap, delta.full);
+      ConfigSnapshotStore.record(ConfigSnapshotStore.Section.SCANNER_PARAMS, flatMap);
   }
 
   @ReactMethod
-  public void addScannerParam(String key, String value) {
-      Log.i(TAG, "addScannerParam() - key: " + key + ", value: " + value);
-      Sodyo.addScannerParams(key, value);
+  public void addScannerParam(final String key, final String value, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.addScannerParam");
+      SodyoLog.i(TAG, "addScannerParam() - key: %s, value: %s", key, value);
+      submitScannerParam(key, value, true, promise);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * @param persist whether the param belongs in the config snapshot, false for transient ones
+   */
+  private void submitScannerParam(final String key, final String value, final boolean persist, @Nullable Promise promise) {
+      commandQueue.submit(new SodyoCommandQueue.Command("scannerParam:" + key) {
+          @Override
+          Object run() {
+              SodyoBackends.get().addScannerParam(key, value);
+              configDeltaTracker.put(ConfigDeltaTracker.Section.SCANNER_PARAMS, key, value);
+              if (persist) {
+                  ConfigSnapshotStore.put(ConfigSnapshotStore.Section.SCANNER_PARAMS, key, value);
+              }
+              return null;
+          }
+      }, promise);
   }
 
   @ReactMethod
-  public void startScanning() {
-      Log.i(TAG, "startScanning()");
-      Sodyo.startScanning();
+  public void startScanning(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.startScanning");
+      SodyoLog.i(TAG, "startScanning()");
+      commandQueue.submit(new ScanningCommand(true, true), promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void stopScanning() {
-      Log.i(TAG, "stopScanning()");
-      Sodyo.stopScanning();
+  public void stopScanning(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.stopScanning");
+      SodyoLog.i(TAG, "stopScanning()");
+      commandQueue.submit(new ScanningCommand(false, true), promise);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * startScanning/stopScanning share a key, so a start followed by a stop in the
+   * same burst merges into the stop, which is skipped if scanning is already off.
+   * The governor's commands have a key of their own: merging one over a JS
+   * command would drop the onTurn that tells the governor what JS asked for.
+   */
+  private final class ScanningCommand extends SodyoCommandQueue.Command {
+      private final boolean scanning;
+      private final boolean fromJs;
+
+      ScanningCommand(boolean scanning, boolean fromJs) {
+          super(fromJs ? "scanning" : "governorScanning");
+          this.scanning = scanning;
+          this.fromJs = fromJs;
+      }
+
+      @Override
+      void onTurn() {
+          // In order with start() and close(), even when skipped as redundant
+          if (fromJs) {
+              scanningGovernor.onScanningChanged(scanning);
+          }
+      }
+
+      @Override
+      boolean isRedundant() {
+          return scanningApplied != null && scanningApplied == scanning;
+      }
+
+      @Override
+      Object run() {
+          if (scanning) {
+              SodyoMetrics.onScanStart();
+              SodyoBackends.get().startScanning();
+          } else {
+              SodyoBackends.get().stopScanning();
+          }
+          scanningApplied = scanning;
+          return null;
+      }
   }
 
   @ReactMethod
-  public void setDynamicProfile(ReadableMap profile) {
-    Log.i(TAG, "setDynamicProfile() - profile: " + profile);
+  public void setDynamicProfile(final ReadableMap profile, Promise promise) {
+    boolean traced = SodyoTrace.begin("RNSodyoSdk.setDynamicProfile");
+    SodyoLog.i(TAG, "setDynamicProfile() - profile: %s", profile);
+    commandQueue.submit(new SodyoCommandQueue.Command("dynamicProfile") {
+        @Override
+        Object run() {
+            applyDynamicProfile(profile);
+            return null;
+        }
+    }, promise);
+    SodyoTrace.end(traced);
+  }
+
+  private void applyDynamicProfile(@Nullable ReadableMap profile) {
     if (profile != null) {
-        HashMap<String, Object> profileMap = new HashMap<>(ConversionUtil.toMap(profile));
-        Log.d(TAG, "setDynamicProfile() - profileMap: " + profileMap);
-        Sodyo.setDynamicProfile(profileMap);
+        Map<String, Object> converted = ConversionUtil.toMap(profile);
+        HashMap<String, Object> profileMap = converted != null ? new HashMap<>(converted) : new HashMap<String, Object>();
+        SodyoLog.d(TAG, "setDynamicProfile() - profileMap: %s", profileMap);
+
+        ConfigDeltaTracker.Delta<Object> delta = configDeltaTracker.diff(ConfigDeltaTracker.Section.DYNAMIC_PROFILE, profileMap);
+        if (delta.unchanged) {
+            SodyoLog.d(TAG, "setDynamicProfile() - unchanged, skipping");
+            configDeltaTracker.skipped(ConfigDeltaTracker.Section.DYNAMIC_PROFILE);
+            return;
+        }
+
+        // setDynamicProfileValue only takes strings, anything else needs the full setter
+        boolean full = delta.full;
+        if (!full) {
+            for (Object value : delta.changed.values()) {
+                if (!(value instanceof String)) {
+                    full = true;
+                    break;
+                }
+            }
+        }
+
+        if (full) {
+            SodyoBackends.get().setDynamicProfile(profileMap);
+        } else {
+            for (Map.Entry<String, Object> entry : delta.changed.entrySet()) {
+                SodyoBackends.get().setDynamicProfileValue(entry.getKey(), (String) entry.getValue());
+            }
+        }
+        configDeltaTracker.applied(ConfigDeltaTracker.Section.DYNAMIC_PROFILE, profileMap, full);
+        ConfigSnapshotStore.record(ConfigSnapshotStore.Section.DYNAMIC_PROFILE, profileMap);
     } else {
-        Log.w(TAG, "setDynamicProfile() - profile is null, skipping");
+        SodyoLog.w(TAG, "setDynamicProfile() - profile is null, skipping");
     }
   }
 
   @ReactMethod
-  public void setDynamicProfileValue(String key, String value) {
-     Log.i(TAG, "setDynamicProfileValue() - key: " + key + ", value: " + value);
-     Sodyo.setDynamicProfileValue(key, value);
+  public void setDynamicProfileValue(final String key, final String value, Promise promise) {
+     boolean traced = SodyoTrace.begin("RNSodyoSdk.setDynamicProfileValue");
+     SodyoLog.i(TAG, "setDynamicProfileValue() - key: %s, value: %s", key, value);
+     commandQueue.submit(new SodyoCommandQueue.Command("dynamicProfileValue:" + key) {
+         @Override
+         Object run() {
+             SodyoBackends.get().setDynamicProfileValue(key, value);
+             configDeltaTracker.put(ConfigDeltaTracker.Section.DYNAMIC_PROFILE, key, value);
+             ConfigSnapshotStore.put(ConfigSnapshotStore.Section.DYNAMIC_PROFILE, key, value);
+             return null;
+         }
+     }, promise);
+     SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void performMarker(String markerId, ReadableMap customProperties) {
-      Log.i(TAG, "performMarker() - markerId: " + markerId + ", customProperties: " + customProperties);
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "performMarker() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "performMarker(): current activity is null, aborting");
-          return;
-      }
-      Map<String, Object> propsMap = ConversionUtil.toMap(customProperties);
-      Log.d(TAG, "performMarker() - converted customProperties: " + propsMap);
-      Sodyo.performMarker(markerId, activity, propsMap);
+  public void performMarker(final String markerId, ReadableMap customProperties, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.performMarker");
+      SodyoLog.i(TAG, "performMarker() - markerId: %s, customProperties: %s", markerId, customProperties);
+      final Map<String, Object> propsMap = ConversionUtil.toMap(customProperties);
+      SodyoLog.d(TAG, "performMarker() - converted customProperties: %s", propsMap);
+      commandQueue.submit(new SodyoCommandQueue.Command(null) {
+          @Override
+          Object run() {
+              Activity activity = getCurrentActivity();
+              SodyoLog.d(TAG, "performMarker() - currentActivity: %s", activity);
+              if (activity == null) {
+                  SodyoLog.e(TAG, "performMarker(): current activity is null, aborting");
+                  throw new SodyoCommandQueue.Rejection(E_NO_ACTIVITY, "performMarker(): current activity is null");
+              }
+              // Content requested without a detection gets a flow of its own
+              SodyoTrace.beginFlow(markerId);
+              SodyoBackends.get().performMarker(markerId, activity, propsMap);
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void startTroubleshoot() {
-      Log.i(TAG, "startTroubleshoot()");
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "startTroubleshoot() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "startTroubleshoot(): current activity is null, aborting");
-          return;
-      }
-      Sodyo.startTroubleshoot(activity);
+  public void startTroubleshoot(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.startTroubleshoot");
+      SodyoLog.i(TAG, "startTroubleshoot()");
+      commandQueue.submit(new ActivityCommand(null, "startTroubleshoot") {
+          @Override
+          void apply(Activity activity) {
+              SodyoBackends.get().startTroubleshoot(activity);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void setTroubleshootMode() {
-      Log.i(TAG, "setTroubleshootMode()");
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "setTroubleshootMode() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "setTroubleshootMode(): current activity is null, aborting");
-          return;
-      }
-      Log.d(TAG, "setTroubleshootMode() - setting mode to Troubleshoot");
-      Sodyo.setMode(activity, SettingsHelper.ScannerViewMode.Troubleshoot);
+  public void setTroubleshootMode(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setTroubleshootMode");
+      SodyoLog.i(TAG, "setTroubleshootMode()");
+      commandQueue.submit(new ActivityCommand("mode", "setTroubleshootMode") {
+          @Override
+          void apply(Activity activity) {
+              SodyoLog.d(TAG, "setTroubleshootMode() - setting mode to Troubleshoot");
+              SodyoBackends.get().setMode(activity, SettingsHelper.ScannerViewMode.Troubleshoot);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod
-  public void setNormalMode() {
-      Log.i(TAG, "setNormalMode()");
-      Activity activity = getCurrentActivity();
-      Log.d(TAG, "setNormalMode() - currentActivity: " + activity);
-      if (activity == null) {
-          Log.e(TAG, "setNormalMode(): current activity is null, aborting");
-          return;
-      }
-      Log.d(TAG, "setNormalMode() - setting mode to Normal");
-      Sodyo.setMode(activity, SettingsHelper.ScannerViewMode.Normal);
+  public void setNormalMode(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setNormalMode");
+      SodyoLog.i(TAG, "setNormalMode()");
+      commandQueue.submit(new ActivityCommand("mode", "setNormalMode") {
+          @Override
+          void apply(Activity activity) {
+              SodyoLog.d(TAG, "setNormalMode() - setting mode to Normal");
+              SodyoBackends.get().setMode(activity, SettingsHelper.ScannerViewMode.Normal);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
   }
 
   @ReactMethod(isBlockingSynchronousMethod = true)
   public String getMode() {
-    String mode = Sodyo.getMode().name();
-    Log.i(TAG, "getMode() - mode: " + mode);
+    boolean traced = SodyoTrace.begin("RNSodyoSdk.getMode");
+    String mode = SodyoBackends.get().getMode().name();
+    SodyoLog.i(TAG, "getMode() - mode: %s", mode);
+    SodyoTrace.end(traced);
     return mode;
   }
 
   @ReactMethod
-  public void setSodyoLogoVisible(Boolean isVisible) {
-    Log.i(TAG, "setSodyoLogoVisible() - isVisible: " + isVisible);
-    Sodyo.setSodyoLogoVisible(isVisible);
+  public void setSodyoLogoVisible(final boolean isVisible, Promise promise) {
+    boolean traced = SodyoTrace.begin("RNSodyoSdk.setSodyoLogoVisible");
+    SodyoLog.i(TAG, "setSodyoLogoVisible() - isVisible: %s", isVisible);
+    commandQueue.submit(new SodyoCommandQueue.Command("sodyoLogoVisible") {
+        @Override
+        Object run() {
+            SodyoBackends.get().setSodyoLogoVisible(isVisible);
+            return null;
+        }
+    }, promise);
+    SodyoTrace.end(traced);
   }
 
   // Issue #2 fix: validate env input, Issue #10 fix: public instead of private
   @ReactMethod
-  public void setEnv(String env) {
-      Log.i(TAG, "setEnv() - env: " + env);
+  public void setEnv(final String env, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setEnv");
+      SodyoLog.i(TAG, "setEnv() - env: %s", env);
+      commandQueue.submit(new SodyoCommandQueue.Command("env") {
+          @Override
+          Object run() {
+              if (!applyEnv(env)) {
+                  throw new SodyoCommandQueue.Rejection(E_INVALID_ENV, "setEnv(): unknown env '" + env + "', expected DEV/QA/PROD");
+              }
+              return null;
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
 
+  private boolean applyEnv(@Nullable String env) {
       if (env == null) {
-          Log.e(TAG, "setEnv(): env is null, aborting");
-          return;
+          SodyoLog.e(TAG, "setEnv(): env is null, aborting");
+          return false;
       }
 
       try {
@@ -422,22 +892,726 @@ public class RNSodyoSdkModule extends ReactContextBaseJavaModule {
           Map<String, String> params = new HashMap<>();
           params.put("webad_env", String.valueOf(sodyoEnv.getValue()));
           params.put("scanner_QR_code_enabled", "false");
-          Log.d(TAG, "setEnv() - resolved sodyoEnv: " + sodyoEnv + " (value: " + sodyoEnv.getValue() + "), params: " + params);
-          Sodyo.setScannerParams(params);
+          SodyoLog.d(TAG, "setEnv() - resolved sodyoEnv: %s (value: %s), params: %s", sodyoEnv, sodyoEnv.getValue(), params);
+          SodyoBackends.get().setScannerParams(params);
+          ConfigSnapshotStore.record(ConfigSnapshotStore.Section.ENV, params);
+          // Whether the SDK merges or replaces here is opaque, so the next setScannerParams goes out in full
+          configDeltaTracker.invalidate(ConfigDeltaTracker.Section.SCANNER_PARAMS);
+          return true;
       } catch (IllegalArgumentException e) {
-          Log.e(TAG, "setEnv(): unknown env '" + env + "', expected DEV/QA/PROD", e);
+          SodyoLog.e(TAG, "setEnv(): unknown env '%s', expected DEV/QA/PROD", env, e);
+          return false;
       }
   }
 
-  // Issue #12 fix: check for active React instance before sending events
+  /**
+   * Applies several configuration sections in one bridge call, in the order of
+   * CONFIGURATION_SECTIONS, and resolves with the time spent on each of them.
+   */
+  @ReactMethod
+  public void applyConfiguration(final ReadableMap configuration, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.applyConfiguration");
+      SodyoLog.i(TAG, "applyConfiguration() - configuration: %s", configuration);
+
+      if (configuration == null) {
+          promise.reject("E_INVALID_CONFIGURATION", "configuration is null");
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      // Unkeyed, so it never merges and keeps its place between the setters around it
+      commandQueue.submit(new SodyoCommandQueue.Command(null) {
+          @Override
+          Object run() {
+              return applyConfigurationSections(configuration);
+          }
+      }, promise);
+      SodyoTrace.end(traced);
+  }
+
+  private WritableMap applyConfigurationSections(ReadableMap configuration) {
+      long start = System.nanoTime();
+      WritableMap durations = Arguments.createMap();
+      WritableArray failed = Arguments.createArray();
+
+      for (String section : CONFIGURATION_SECTIONS) {
+          if (!configuration.hasKey(section)) {
+              continue;
+          }
+
+          long sectionStart = System.nanoTime();
+          boolean applied = applyConfigurationSection(configuration, section);
+          durations.putDouble(section, elapsedMs(sectionStart));
+
+          if (!applied) {
+              failed.pushString(section);
+          }
+      }
+
+      WritableMap result = Arguments.createMap();
+      result.putMap("durations", durations);
+      result.putArray("failed", failed);
+      result.putDouble("totalMs", elapsedMs(start));
+      return result;
+  }
+
+  private boolean applyConfigurationSection(ReadableMap configuration, String section) {
+      switch (section) {
+          case "env":
+              return applyEnv(configuration.isNull(section) ? null : configuration.getString(section));
+          case "scannerParams":
+              applyScannerParams(configuration.isNull(section) ? null : configuration.getMap(section));
+              return true;
+          case "appUserId":
+              applyAppUserId(configuration.isNull(section) ? null : configuration.getString(section));
+              return true;
+          case "customAdLabel":
+              applyCustomAdLabel(configuration.isNull(section) ? null : configuration.getString(section));
+              return true;
+          case "sodyoLogoVisible":
+              if (configuration.isNull(section)) {
+                  return false;
+              }
+              SodyoBackends.get().setSodyoLogoVisible(configuration.getBoolean(section));
+              return true;
+          case "userInfo":
+              return applyUserInfo(configuration.isNull(section) ? null : configuration.getMap(section));
+          case "dynamicProfile":
+              applyDynamicProfile(configuration.isNull(section) ? null : configuration.getMap(section));
+              return true;
+          default:
+              return false;
+      }
+  }
+
+  @ReactMethod
+  public void setMarkerDetectBatching(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setMarkerDetectBatching");
+      SodyoLog.i(TAG, "setMarkerDetectBatching() - options: %s", options);
+
+      if (options == null) {
+          markerDetectBatcher.configure(false, 0, 0, 0);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      boolean enabled = !options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled");
+      int maxBatchSize = options.hasKey("maxBatchSize") && !options.isNull("maxBatchSize") ? options.getInt("maxBatchSize") : 0;
+      long flushIntervalMs = options.hasKey("flushIntervalMs") && !options.isNull("flushIntervalMs") ? (long) options.getDouble("flushIntervalMs") : 0;
+      int maxQueueSize = options.hasKey("maxQueueSize") && !options.isNull("maxQueueSize") ? options.getInt("maxQueueSize") : 0;
+
+      markerDetectBatcher.configure(enabled, maxBatchSize, flushIntervalMs, maxQueueSize);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setStructuredMarkerContent(boolean enabled) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setStructuredMarkerContent");
+      SodyoLog.i(TAG, "setStructuredMarkerContent() - enabled: %s", enabled);
+      structuredMarkerContent = enabled;
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setMarkerContentCache(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setMarkerContentCache");
+      SodyoLog.i(TAG, "setMarkerContentCache() - options: %s", options);
+
+      if (options == null) {
+          markerContentCache.configure(false, 0, 0, 0);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      boolean enabled = !options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled");
+      int maxEntries = options.hasKey("maxEntries") && !options.isNull("maxEntries") ? options.getInt("maxEntries") : 0;
+      long maxBytes = options.hasKey("maxBytes") && !options.isNull("maxBytes") ? (long) options.getDouble("maxBytes") : 0;
+      long ttlMs = options.hasKey("ttlMs") && !options.isNull("ttlMs") ? (long) options.getDouble("ttlMs") : 0;
+
+      markerContentCache.configure(enabled, maxEntries, maxBytes, ttlMs);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getCachedMarkerContent(String markerId, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getCachedMarkerContent");
+      SodyoLog.i(TAG, "getCachedMarkerContent() - markerId: %s", markerId);
+
+      String json = markerContentCache.get(markerId);
+      if (json == null) {
+          promise.resolve(null);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      if (!structuredMarkerContent) {
+          promise.resolve(json);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      try {
+          promise.resolve(ConversionUtil.toWritableMap(new JSONObject(json)));
+      } catch (JSONException e) {
+          promise.reject("E_INVALID_CONTENT", e);
+      }
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void prefetchMarkerContent(String markerId, ReadableMap content) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.prefetchMarkerContent");
+      SodyoLog.i(TAG, "prefetchMarkerContent() - markerId: %s", markerId);
+
+      if (markerId == null || content == null) {
+          SodyoLog.w(TAG, "prefetchMarkerContent() - markerId or content is null, skipping");
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      Map<String, Object> contentMap = ConversionUtil.toMap(content);
+      JSONObject json = contentMap != null ? new JSONObject(contentMap) : new JSONObject();
+      markerContentCache.put(markerId, json.toString());
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getMarkerContentCacheStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getMarkerContentCacheStats");
+      WritableMap stats = Arguments.createMap();
+      stats.putDouble("hits", markerContentCache.getHits());
+      stats.putDouble("misses", markerContentCache.getMisses());
+      stats.putDouble("evictions", markerContentCache.getEvictions());
+      stats.putInt("entries", markerContentCache.size());
+      stats.putDouble("bytes", markerContentCache.getTotalBytes());
+      promise.resolve(stats);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Registers a marker filter and resolves its id. An id passed in options
+   * replaces the filter registered under it.
+   */
+  @ReactMethod
+  public void addMarkerFilter(ReadableMap options, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.addMarkerFilter");
+      SodyoLog.i(TAG, "addMarkerFilter() - options: %s", options);
+
+      if (options == null) {
+          promise.reject(E_INVALID_FILTER, "Filter options are required");
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      String id = options.hasKey("id") && !options.isNull("id") ? options.getString("id") : "filter-" + markerFilterIds.incrementAndGet();
+      Set<String> idPrefixes = toStringSet(options, "idPrefixes");
+      Set<String> markerTypes = toStringSet(options, "markerTypes");
+      long suppressWindowMs = options.hasKey("suppressWindowMs") && !options.isNull("suppressWindowMs") ? (long) options.getDouble("suppressWindowMs") : 0;
+
+      Pattern idPattern = null;
+      if (options.hasKey("idPattern") && !options.isNull("idPattern")) {
+          try {
+              idPattern = Pattern.compile(options.getString("idPattern"));
+          } catch (PatternSyntaxException e) {
+              promise.reject(E_INVALID_FILTER, e);
+              SodyoTrace.end(traced);
+              return;
+          }
+      }
+
+      Set<MarkerFilterSet.Kind> kinds = EnumSet.allOf(MarkerFilterSet.Kind.class);
+      if (options.hasKey("events") && !options.isNull("events")) {
+          kinds = EnumSet.noneOf(MarkerFilterSet.Kind.class);
+          for (String name : toStringSet(options, "events")) {
+              MarkerFilterSet.Kind kind = MarkerFilterSet.Kind.fromJsName(name);
+              if (kind == null) {
+                  promise.reject(E_INVALID_FILTER, "Unknown event '" + name + "', expected detect/content");
+                  SodyoTrace.end(traced);
+                  return;
+              }
+              kinds.add(kind);
+          }
+      }
+
+      markerFilters.add(new MarkerFilterSet.Filter(id, idPrefixes.toArray(new String[0]), idPattern, markerTypes, kinds, suppressWindowMs));
+      promise.resolve(id);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void removeMarkerFilter(String id) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.removeMarkerFilter");
+      SodyoLog.i(TAG, "removeMarkerFilter() - id: %s", id);
+      if (id != null && !markerFilters.remove(id)) {
+          SodyoLog.w(TAG, "removeMarkerFilter(): no filter with id '%s'", id);
+      }
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void clearMarkerFilters() {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.clearMarkerFilters");
+      SodyoLog.i(TAG, "clearMarkerFilters()");
+      markerFilters.clear();
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getMarkerFilterStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getMarkerFilterStats");
+      WritableMap filters = Arguments.createMap();
+      for (MarkerFilterSet.Filter filter : markerFilters.getFilters()) {
+          WritableMap filterStats = Arguments.createMap();
+          filterStats.putDouble("matched", filter.matched.get());
+          filterStats.putDouble("suppressed", filter.suppressed.get());
+          filters.putMap(filter.id, filterStats);
+      }
+
+      WritableMap stats = Arguments.createMap();
+      stats.putMap("filters", filters);
+      stats.putDouble("rejected", markerFilters.getRejected());
+      promise.resolve(stats);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setScanJournal(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setScanJournal");
+      SodyoLog.i(TAG, "setScanJournal() - options: %s", options);
+
+      if (options == null) {
+          scanJournal.configure(false, 0, 0);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      boolean enabled = !options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled");
+      long maxSegmentBytes = options.hasKey("maxSegmentBytes") && !options.isNull("maxSegmentBytes") ? (long) options.getDouble("maxSegmentBytes") : 0;
+      int maxSegments = options.hasKey("maxSegments") && !options.isNull("maxSegments") ? options.getInt("maxSegments") : 0;
+
+      scanJournal.configure(enabled, maxSegmentBytes, maxSegments);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Resolves the newest matching journal records, newest first, in one array.
+   */
+  @ReactMethod
+  public void queryScanJournal(ReadableMap query, Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.queryScanJournal");
+      SodyoLog.i(TAG, "queryScanJournal() - query: %s", query);
+
+      long fromMs = 0;
+      long toMs = Long.MAX_VALUE;
+      String markerId = null;
+      ScanJournal.Kind kind = null;
+      int limit = 0;
+
+      if (query != null) {
+          fromMs = query.hasKey("fromMs") && !query.isNull("fromMs") ? (long) query.getDouble("fromMs") : 0;
+          toMs = query.hasKey("toMs") && !query.isNull("toMs") ? (long) query.getDouble("toMs") : Long.MAX_VALUE;
+          markerId = query.hasKey("markerId") && !query.isNull("markerId") ? query.getString("markerId") : null;
+          limit = query.hasKey("limit") && !query.isNull("limit") ? query.getInt("limit") : 0;
+
+          if (query.hasKey("kind") && !query.isNull("kind")) {
+              kind = ScanJournal.Kind.fromJsName(query.getString("kind"));
+              if (kind == null) {
+                  promise.reject(E_INVALID_QUERY, "Unknown kind '" + query.getString("kind") + "', expected detect/content");
+                  SodyoTrace.end(traced);
+                  return;
+              }
+          }
+      }
+
+      WritableArray records = Arguments.createArray();
+      for (ScanJournal.Record record : scanJournal.query(fromMs, toMs, markerId, kind, limit)) {
+          WritableMap item = Arguments.createMap();
+          item.putDouble("timestamp", record.timestamp);
+          item.putString("kind", record.kind.jsName);
+          item.putString("markerId", record.markerId);
+          if (record.markerType != null) {
+              item.putString("markerType", record.markerType);
+          }
+          if (record.data != null) {
+              item.putString("data", record.data);
+          }
+          records.pushMap(item);
+      }
+      promise.resolve(records);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void clearScanJournal() {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.clearScanJournal");
+      SodyoLog.i(TAG, "clearScanJournal()");
+      scanJournal.clear();
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Keeps the applied configuration on disk and re-applies it natively as soon
+   * as the SDK is initialized on the next cold start; disabling deletes it.
+   */
+  @ReactMethod
+  public void setConfigSnapshot(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setConfigSnapshot");
+      SodyoLog.i(TAG, "setConfigSnapshot() - options: %s", options);
+      boolean enabled = options != null && (!options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled"));
+      ConfigSnapshotStore.setEnabled(enabled);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getConfigSnapshotInfo(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getConfigSnapshotInfo");
+      promise.resolve(ConfigSnapshotStore.getInfo());
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getCommandQueueStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getCommandQueueStats");
+      promise.resolve(commandQueue.getStats());
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getConfigUpdateStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getConfigUpdateStats");
+      WritableMap stats = Arguments.createMap();
+      for (ConfigDeltaTracker.Section section : ConfigDeltaTracker.Section.values()) {
+          WritableMap sectionStats = Arguments.createMap();
+          sectionStats.putDouble("skipped", configDeltaTracker.getSkipped(section));
+          sectionStats.putDouble("applied", configDeltaTracker.getAppliedFull(section));
+          sectionStats.putDouble("appliedDelta", configDeltaTracker.getAppliedDelta(section));
+          stats.putMap(section.jsName, sectionStats);
+      }
+      promise.resolve(stats);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setLogLevel(String level) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setLogLevel");
+      int parsed = SodyoLog.parseLevel(level);
+      if (parsed < 0) {
+          SodyoLog.e(TAG, "setLogLevel(): unknown level '%s', expected VERBOSE/DEBUG/INFO/WARN/ERROR/NONE", level);
+          SodyoTrace.end(traced);
+          return;
+      }
+      SodyoLog.setLevel(parsed);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Turns android.os.Trace sections and per-marker flows on or off, see SodyoTrace.
+   */
+  @ReactMethod
+  public void setTracingEnabled(boolean enabled) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setTracingEnabled");
+      SodyoTrace.setEnabled(enabled);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setScannerPooling(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setScannerPooling");
+      SodyoLog.i(TAG, "setScannerPooling() - options: %s", options);
+
+      if (options == null) {
+          ScannerFragmentPool.configure(false, 0);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      boolean enabled = !options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled");
+      long gracePeriodMs = options.hasKey("gracePeriodMs") && !options.isNull("gracePeriodMs") ? (long) options.getDouble("gracePeriodMs") : 0;
+
+      ScannerFragmentPool.configure(enabled, gracePeriodMs);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Swaps the SDK for a generator of synthetic markers, for load testing; null
+   * or enabled: false goes back to the real SDK. The callbacks move over to the
+   * new backend right away.
+   */
+  @ReactMethod
+  public void setSimulatedBackend(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setSimulatedBackend");
+      SodyoLog.i(TAG, "setSimulatedBackend() - options: %s", options);
+
+      SodyoBackend next = null;
+      if (options != null && (!options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled"))) {
+          SimulatedSodyoBackend.Config config = new SimulatedSodyoBackend.Config();
+          if (options.hasKey("rateHz") && !options.isNull("rateHz")) {
+              config.rateHz = options.getDouble("rateHz");
+          }
+          if (options.hasKey("burstSize") && !options.isNull("burstSize")) {
+              config.burstSize = Math.max(1, options.getInt("burstSize"));
+          }
+          if (options.hasKey("payloadBytes") && !options.isNull("payloadBytes")) {
+              config.payloadBytes = Math.max(0, options.getInt("payloadBytes"));
+          }
+          if (options.hasKey("errorRatio") && !options.isNull("errorRatio")) {
+              config.errorRatio = options.getDouble("errorRatio");
+          }
+          if (options.hasKey("contentRatio") && !options.isNull("contentRatio")) {
+              config.contentRatio = options.getDouble("contentRatio");
+          }
+          if (options.hasKey("markerCount") && !options.isNull("markerCount")) {
+              config.markerCount = Math.max(1, options.getInt("markerCount"));
+          }
+          if (options.hasKey("seed") && !options.isNull("seed")) {
+              config.seed = (long) options.getDouble("seed");
+          }
+          next = new SimulatedSodyoBackend(config);
+      }
+
+      SodyoBackend previous = SodyoBackends.set(next);
+      if (previous instanceof SimulatedSodyoBackend) {
+          ((SimulatedSodyoBackend) previous).shutdown();
+      }
+      // The scanning state of the previous backend says nothing about the new one
+      scanningApplied = null;
+
+      if (SodyoInitializer.getState() == SodyoInitializer.State.READY) {
+          installSodyoCallbacks();
+      }
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getBackendInfo(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getBackendInfo");
+      SodyoBackend backend = SodyoBackends.get();
+
+      WritableMap info = Arguments.createMap();
+      info.putString("type", backend instanceof SimulatedSodyoBackend ? "simulated" : "real");
+      if (backend instanceof SimulatedSodyoBackend) {
+          SimulatedSodyoBackend simulated = (SimulatedSodyoBackend) backend;
+          info.putDouble("detections", simulated.detections.get());
+          info.putDouble("errors", simulated.errors.get());
+          info.putDouble("contents", simulated.contents.get());
+      }
+      promise.resolve(info);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setScanningGovernor(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setScanningGovernor");
+      SodyoLog.i(TAG, "setScanningGovernor() - options: %s", options);
+
+      boolean enabled = options != null && (!options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled"));
+      if (!enabled) {
+          scanningGovernor.configure(null);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      ScanningGovernor.Config config = new ScanningGovernor.Config();
+      if (options.hasKey("idleTimeoutMs") && !options.isNull("idleTimeoutMs")) {
+          config.idleTimeoutMs = Math.max(0, (long) options.getDouble("idleTimeoutMs"));
+      }
+      if (options.hasKey("thermalThreshold") && !options.isNull("thermalThreshold")) {
+          String name = options.getString("thermalThreshold");
+          config.thermalThreshold = ScanningGovernor.thermalStatusFromJsName(name);
+          if (config.thermalThreshold < 0) {
+              SodyoLog.e(TAG, "setScanningGovernor(): unknown thermalThreshold '%s', expected light/moderate/severe/critical/emergency/shutdown", name);
+              SodyoTrace.end(traced);
+              return;
+          }
+      }
+      if (options.hasKey("throttleOnPowerSave") && !options.isNull("throttleOnPowerSave")) {
+          config.throttleOnPowerSave = options.getBoolean("throttleOnPowerSave");
+      }
+      if (options.hasKey("resumeOnTouch") && !options.isNull("resumeOnTouch")) {
+          config.resumeOnTouch = options.getBoolean("resumeOnTouch");
+      }
+      if (options.hasKey("throttledParams") && !options.isNull("throttledParams")) {
+          config.throttledParams = ConversionUtil.toFlatMap(options.getMap("throttledParams"));
+      }
+      if (options.hasKey("normalParams") && !options.isNull("normalParams")) {
+          config.normalParams = ConversionUtil.toFlatMap(options.getMap("normalParams"));
+      }
+
+      scanningGovernor.configure(config);
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Leaves the idle state of the scanning governor, restarting scanning if it was stopped for inactivity.
+   */
+  @ReactMethod
+  public void resumeScanning() {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.resumeScanning");
+      SodyoLog.i(TAG, "resumeScanning()");
+      scanningGovernor.resume("js", false);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getScanningGovernorState(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getScanningGovernorState");
+      promise.resolve(scanningGovernor.snapshot());
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getMetrics(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getMetrics");
+      promise.resolve(SodyoMetrics.toWritableMap());
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Frame pacing of the mounted Scanner with frameTelemetryIntervalMs set, or of the last one.
+   */
+  @ReactMethod
+  public void getFrameStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getFrameStats");
+      promise.resolve(FrameTelemetry.snapshot());
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void resetMetrics() {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.resetMetrics");
+      SodyoLog.i(TAG, "resetMetrics()");
+      SodyoMetrics.reset();
+      SodyoTrace.end(traced);
+  }
+
+  /**
+   * Emits EventSodyoMetrics with the getMetrics() payload every intervalMs, 0 stops it.
+   */
+  @ReactMethod
+  public void setMetricsInterval(double intervalMs) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setMetricsInterval");
+      SodyoLog.i(TAG, "setMetricsInterval() - intervalMs: %s", intervalMs);
+      metricsIntervalMs = (long) intervalMs;
+      metricsHandler.removeCallbacks(metricsRunnable);
+      if (metricsIntervalMs > 0) {
+          metricsHandler.postDelayed(metricsRunnable, metricsIntervalMs);
+      }
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void setPendingEventQueue(ReadableMap options) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.setPendingEventQueue");
+      SodyoLog.i(TAG, "setPendingEventQueue() - options: %s", options);
+
+      if (options == null) {
+          pendingEvents.configure(false, 0, PendingEventQueue.Overflow.DROP_OLDEST);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      boolean enabled = !options.hasKey("enabled") || options.isNull("enabled") || options.getBoolean("enabled");
+      int capacity = options.hasKey("capacity") && !options.isNull("capacity") ? options.getInt("capacity") : 0;
+      String overflowName = options.hasKey("overflow") && !options.isNull("overflow") ? options.getString("overflow") : "dropOldest";
+
+      PendingEventQueue.Overflow overflow = PendingEventQueue.Overflow.fromJsName(overflowName);
+      if (overflow == null) {
+          SodyoLog.e(TAG, "setPendingEventQueue(): unknown overflow '%s', expected dropOldest/dropNewest/coalesce", overflowName);
+          SodyoTrace.end(traced);
+          return;
+      }
+
+      pendingEvents.configure(enabled, capacity, overflow);
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void getPendingEventStats(Promise promise) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.getPendingEventStats");
+      WritableMap stats = Arguments.createMap();
+      stats.putInt("pending", pendingEvents.size());
+      stats.putDouble("queued", pendingEvents.getQueued());
+      stats.putDouble("replayed", pendingEvents.getReplayed());
+      stats.putDouble("dropped", pendingEvents.getDropped());
+      stats.putDouble("coalesced", pendingEvents.getCoalesced());
+      promise.resolve(stats);
+      SodyoTrace.end(traced);
+  }
+
+  // Required by NativeEventEmitter. Events are emitted regardless of listener count,
+  // but JS subscribing is the only moment it can receive what was queued for it.
+  @ReactMethod
+  public void addListener(String eventName) {
+      boolean traced = SodyoTrace.begin("RNSodyoSdk.addListener");
+      if (!pendingEvents.isEmpty() && reactContext.hasActiveReactInstance()) {
+          pendingEvents.replay(eventName, pendingEventEmitter);
+      }
+      SodyoTrace.end(traced);
+  }
+
+  @ReactMethod
+  public void removeListeners(double count) {
+  }
+
+  private static Set<String> toStringSet(ReadableMap options, String key) {
+    Set<String> values = new HashSet<>();
+    if (!options.hasKey(key) || options.isNull(key)) {
+      return values;
+    }
+
+    ReadableArray array = options.getArray(key);
+    for (int i = 0; i < array.size(); i++) {
+      if (!array.isNull(i)) {
+        values.add(array.getString(i));
+      }
+    }
+    return values;
+  }
+
+  private static double elapsedMs(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1e6;
+  }
+
   private void sendEvent(String eventName, @Nullable WritableMap params) {
-    Log.d(TAG, "sendEvent() - eventName: " + eventName + ", params: " + params);
+    sendEvent(eventName, params, 0);
+  }
+
+  // Issue #12 fix: check for active React instance before sending events
+  // flow is the SodyoTrace flow of the scan the event is about, 0 for none
+  private void sendEvent(String eventName, @Nullable WritableMap params, int flow) {
+    boolean traced = SodyoTrace.begin("RNSodyoSdk.sendEvent", eventName, flow);
+    SodyoLog.d(TAG, "sendEvent() - eventName: %s, params: %s", eventName, params);
     if (!reactContext.hasActiveReactInstance()) {
-        Log.w(TAG, "sendEvent() - no active React instance, dropping event: " + eventName);
+        if (pendingEvents.isReplayable(eventName)) {
+            SodyoLog.w(TAG, "sendEvent() - no active React instance, queueing event: %s", eventName);
+            pendingEvents.offer(eventName, params);
+            SodyoTrace.end(traced);
+            return;
+        }
+        SodyoLog.w(TAG, "sendEvent() - no active React instance, dropping event: %s", eventName);
+        SodyoMetrics.eventsDropped.incrementAndGet();
+        SodyoTrace.end(traced);
         return;
     }
+
+    long start = System.nanoTime();
+    if (ScannerEventRouter.route(eventName, params)) {
+        SodyoMetrics.sendEventDispatch.recordSince(start);
+        SodyoMetrics.eventsSent.incrementAndGet();
+        SodyoTrace.end(traced);
+        return;
+    }
+
+    emitEvent(eventName, params);
+    SodyoTrace.end(traced);
+  }
+
+  private void emitEvent(String eventName, @Nullable WritableMap params) {
+    long start = System.nanoTime();
     reactContext
         .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
         .emit(eventName, params);
+    SodyoMetrics.sendEventDispatch.recordSince(start);
+    SodyoMetrics.eventsSent.incrementAndGet();
   }
 }
\ No newline at end of file
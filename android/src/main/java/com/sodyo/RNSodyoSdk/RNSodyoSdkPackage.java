@@ -1,20 +1,62 @@
-
 package com.sodyo.RNSodyoSDK;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
-import com.facebook.react.ReactPackage;
+import android.app.Application;
+
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import com.facebook.react.uimanager.ViewManager;
 import com.facebook.react.bridge.JavaScriptModule;
 
-public class RNSodyoSdkPackage implements ReactPackage {
+// TurboReactPackage modules are created lazily on both architectures;
+// old-architecture hosts load them through the same package API.
+public class RNSodyoSdkPackage extends TurboReactPackage {
+    /**
+     * Starts loading the Sodyo SDK from {@code Application.onCreate}, before the JS
+     * bundle runs. A later {@code SodyoSDK.init()} from JS joins this init instead
+     * of starting a second one, and resolves once it is done.
+     */
+    public static void preInit(Application application, String apiKey) {
+      SodyoInitializer.init(application, apiKey, null);
+    }
+
+    @Nullable
+    @Override
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+      if (RNSodyoSdkModule.NAME.equals(name)) {
+        return new RNSodyoSdkModule(reactContext);
+      }
+      return null;
+    }
+
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-      return Arrays.<NativeModule>asList(new RNSodyoSdkModule(reactContext));
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+      return new ReactModuleInfoProvider() {
+        @Override
+        public Map<String, ReactModuleInfo> getReactModuleInfos() {
+          Map<String, ReactModuleInfo> moduleInfos = new HashMap<>();
+          moduleInfos.put(RNSodyoSdkModule.NAME, new ReactModuleInfo(
+              RNSodyoSdkModule.NAME,
+              RNSodyoSdkModule.class.getName(),
+              false, // canOverrideExistingModule
+              false, // needsEagerInit
+              false, // hasConstants
+              false, // isCxxModule
+              BuildConfig.IS_NEW_ARCHITECTURE_ENABLED // isTurboModule
+          ));
+          return moduleInfos;
+        }
+      };
     }
 
     // Deprecated from RN 0.47
@@ -1,11 +1,26 @@
 package com.sodyo.RNSodyoSDK;
 
-import com.facebook.react.uimanager.SimpleViewManager;
 import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.UIManagerHelper;
+import com.facebook.react.uimanager.events.EventDispatcher;
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
-import android.util.Log;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.app.Fragment;
 import android.app.FragmentManager;
@@ -14,21 +29,31 @@ import android.app.Activity;
 
 import javax.annotation.Nullable;
 
-import com.sodyo.sdk.SodyoScannerFragment;
 
 @SuppressWarnings("deprecation")
-public class RNSodyoSdkView extends SimpleViewManager<FrameLayout> {
+public class RNSodyoSdkView extends RNSodyoSdkViewManagerSpec<FrameLayout> {
     static final String TAG = "RNSodyoSdkView";
 
     static final String TAG_FRAGMENT = "SODYO_SCANNER";
 
     public static final String REACT_CLASS = "RNSodyoSdkView";
 
+    static final String EVENT_SCANNER_READY = "topScannerReady";
+
+    static final String EVENT_FRAME_STATS = "topFrameStats";
+
     private final @Nullable ReactApplicationContext mCallerContext;
 
-    private @Nullable SodyoScannerFragment sodyoFragment;
+    private @Nullable RNSodyoScannerFragment sodyoFragment;
 
-    private boolean isCameraEnabled = true;
+    private final ScannerCameraController cameraController = new ScannerCameraController();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Attach scheduled for the next frame or a new fragment waiting for its view, and the placeholder it is for
+    private @Nullable Choreographer.FrameCallback pendingAttach;
+    private @Nullable RNSodyoScannerFragment pendingShow;
+    private @Nullable FrameLayout pendingAttachView;
 
     @Override
     public String getName() {
@@ -37,18 +62,101 @@ public class RNSodyoSdkView extends SimpleViewManager<FrameLayout> {
 
     public RNSodyoSdkView(ReactApplicationContext callerContext) {
         mCallerContext = callerContext;
+        mCallerContext.addLifecycleEventListener(cameraController);
     }
 
     @Override
-    public FrameLayout createViewInstance(ThemedReactContext context) {
-        Log.i(TAG,"createViewInstance");
+    public FrameLayout createViewInstance(final ThemedReactContext context) {
+        SodyoLog.i(TAG, "createViewInstance");
+        final long start = System.nanoTime();
+
+        final FrameLayout view = new FrameLayout(context) {
+            @Override
+            public boolean onInterceptTouchEvent(MotionEvent event) {
+                // Seen before the scanner fragment gets the touch, which is never intercepted
+                if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                    ScanningGovernor.onTouch();
+                }
+                return false;
+            }
+        };
+        cameraController.reset();
+        cancelPendingAttach();
+
+        // Hand React an empty placeholder; the fragment transaction and the camera
+        // open happen on a later frame so they never stall the mounting one
+        pendingAttachView = view;
+        pendingAttach = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                pendingAttach = null;
+                pendingAttachView = null;
+                boolean traced = SodyoTrace.begin("RNSodyoSdkView.attachFragment");
+                try {
+                    attachFragment(context, view, start);
+                } finally {
+                    SodyoTrace.end(traced);
+                }
+            }
+        };
+        Choreographer.getInstance().postFrameCallback(pendingAttach);
+        return view;
+    }
+
+    private void cancelPendingAttach() {
+        if (pendingAttach != null) {
+            Choreographer.getInstance().removeFrameCallback(pendingAttach);
+            pendingAttach = null;
+        }
 
-        final FrameLayout view = new FrameLayout(context);
+        if (pendingShow != null) {
+            pendingShow.setViewListener(null);
+            pendingShow = null;
+
+            // Added but never shown, so no other view can own it
+            RNSodyoScannerFragment fragment = sodyoFragment;
+            sodyoFragment = null;
+            if (fragment != null) {
+                removeFragment(fragment);
+            }
+        }
+        pendingAttachView = null;
+    }
+
+    private void attachFragment(final ThemedReactContext context, final FrameLayout view, long start) {
+        long attachStart = System.nanoTime();
+        FrameTelemetry.mark(FrameTelemetry.Phase.ATTACH, attachStart);
+
+        if (!SodyoBackends.get().hasScannerUi()) {
+            // Simulated backend: no camera to show, the view only drives scanning
+            SodyoLog.i(TAG, "backend has no scanner UI, scanning without a fragment");
+            SodyoBackends.get().startScanning();
+            emitScannerReady(context, view, (System.nanoTime() - attachStart) / 1e6, -1, false);
+            return;
+        }
 
         Activity currentActivity = mCallerContext.getCurrentActivity();
         if (currentActivity == null) {
-            Log.e(TAG, "Current activity is null, cannot initialize SodyoScannerFragment");
-            return view;
+            SodyoLog.e(TAG, "Current activity is null, cannot initialize SodyoScannerFragment");
+            return;
+        }
+
+        RNSodyoScannerFragment warm = ScannerFragmentPool.acquire(currentActivity);
+        if (warm != null) {
+            SodyoLog.i(TAG, "reusing pooled SodyoScannerFragment");
+            sodyoFragment = warm;
+            view.addView(warm.getView(), FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT);
+            recordFirstLayout(warm.getView(), start, true);
+
+            final double attachMs = (System.nanoTime() - attachStart) / 1e6;
+            // Pooled fragments are parked with the camera stopped, the controller reopens it off the main thread
+            cameraController.attach(warm, false, new ScannerCameraController.OpenListener() {
+                @Override
+                public void onCameraOpened(double openMs) {
+                    emitScannerReady(context, view, attachMs, openMs, true);
+                }
+            });
+            return;
         }
 
         FragmentManager fragmentManager = currentActivity.getFragmentManager();
@@ -56,61 +164,287 @@ public class RNSodyoSdkView extends SimpleViewManager<FrameLayout> {
         // Clean up any previously added fragment to avoid "Fragment already added"
         Fragment existing = fragmentManager.findFragmentByTag(TAG_FRAGMENT);
         if (existing != null) {
-            Log.w(TAG, "Removing existing SodyoScannerFragment before re-adding");
+            SodyoLog.w(TAG, "Removing existing SodyoScannerFragment before re-adding");
             fragmentManager.beginTransaction().remove(existing).commitNowAllowingStateLoss();
         }
 
-        Log.i(TAG,"init SodyoScannerFragment");
-        sodyoFragment = new SodyoScannerFragment();
+        SodyoLog.i(TAG, "init SodyoScannerFragment");
+        final RNSodyoScannerFragment fragment = new RNSodyoScannerFragment();
+        sodyoFragment = fragment;
+
+        // Not executed right away: the transaction runs on a later main loop turn
+        // and the fragment tells us once it has created its view
+        pendingAttachView = view;
+        pendingShow = fragment;
+        fragment.setViewListener(new RNSodyoScannerFragment.ViewListener() {
+            @Override
+            public void onViewCreated(final RNSodyoScannerFragment created) {
+                created.setViewListener(null);
+                pendingShow = null;
+                pendingAttachView = null;
+
+                // Shown once the transaction that created the view has finished
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (sodyoFragment != created || created.getView() == null) {
+                            return;
+                        }
+
+                        boolean traced = SodyoTrace.begin("RNSodyoSdkView.showFragment");
+                        try {
+                            showFragment(context, view, created, start, attachStart);
+                        } finally {
+                            SodyoTrace.end(traced);
+                        }
+                    }
+                });
+            }
+        });
 
         FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction();
-        fragmentTransaction.add(sodyoFragment, TAG_FRAGMENT).commitAllowingStateLoss();
-        fragmentManager.executePendingTransactions();
+        fragmentTransaction.add(fragment, TAG_FRAGMENT).commitAllowingStateLoss();
+    }
 
-        view.addView(sodyoFragment.getView(), FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT);
-        return view;
+    private void showFragment(final ThemedReactContext context, final FrameLayout view, RNSodyoScannerFragment fragment, long start, long attachStart) {
+        view.addView(fragment.getView(), FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT);
+        recordFirstLayout(fragment.getView(), start, false);
+
+        final double attachMs = (System.nanoTime() - attachStart) / 1e6;
+        // Started on the camera thread like a pooled fragment's; RNSodyoScannerFragment keeps it
+        // from overlapping with whatever the fragment's own lifecycle does with the camera
+        cameraController.attach(fragment, false, new ScannerCameraController.OpenListener() {
+            @Override
+            public void onCameraOpened(double openMs) {
+                emitScannerReady(context, view, attachMs, openMs, false);
+            }
+        });
+    }
+
+    private void removeFragment(Fragment fragment) {
+        try {
+            Activity currentActivity = mCallerContext.getCurrentActivity();
+            if (currentActivity != null) {
+                currentActivity.getFragmentManager().beginTransaction().remove(fragment).commitAllowingStateLoss();
+            }
+        } catch (Exception e) {
+            SodyoLog.e(TAG, "removeFragment(): failed to remove fragment", e);
+        }
+    }
+
+    /**
+     * Dispatches onScannerReady. cameraOpenMs is left out when it is negative,
+     * i.e. there was no camera to open.
+     */
+    private static void emitScannerReady(ThemedReactContext context, FrameLayout view, double attachMs, double cameraOpenMs, boolean pooled) {
+        WritableMap data = Arguments.createMap();
+        data.putDouble("attachMs", attachMs);
+        if (cameraOpenMs >= 0) {
+            data.putDouble("cameraOpenMs", cameraOpenMs);
+        }
+        data.putBoolean("pooled", pooled);
+
+        SodyoLog.i(TAG, "onScannerReady - attachMs: %s, cameraOpenMs: %s, pooled: %s", attachMs, cameraOpenMs, pooled);
+        dispatchDirectEvent(context, view, EVENT_SCANNER_READY, data);
+    }
+
+    /**
+     * @return false when view has no event dispatcher, e.g. after it was unmounted
+     */
+    private static boolean dispatchDirectEvent(ReactContext context, View view, String eventName, @Nullable WritableMap data) {
+        EventDispatcher dispatcher = UIManagerHelper.getEventDispatcherForReactTag(context, view.getId());
+        if (dispatcher == null) {
+            return false;
+        }
+
+        dispatcher.dispatchEvent(new ScannerEvent(UIManagerHelper.getSurfaceId(view), view.getId(), eventName, data));
+        return true;
+    }
+
+    /**
+     * Delivers the events of {@link ScannerEventRouter} to one scanner view.
+     */
+    private static final class DirectEventTarget implements ScannerEventRouter.Target {
+        private final WeakReference<FrameLayout> viewRef;
+
+        DirectEventTarget(FrameLayout view) {
+            this.viewRef = new WeakReference<>(view);
+        }
+
+        @Override
+        public boolean dispatch(String eventName, @Nullable WritableMap data) {
+            FrameLayout view = viewRef.get();
+            return view != null && dispatchDirectEvent((ReactContext) view.getContext(), view, eventName, data);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getExportedCustomDirectEventTypeConstants() {
+        return MapBuilder.<String, Object>builder()
+            .put(EVENT_SCANNER_READY, MapBuilder.of("registrationName", "onScannerReady"))
+            .put(EVENT_FRAME_STATS, MapBuilder.of("registrationName", "onFrameStats"))
+            .put(ScannerEventRouter.EVENT_MARKER_DETECT, MapBuilder.of("registrationName", "onMarkerDetect"))
+            .put(ScannerEventRouter.EVENT_MARKER_CONTENT, MapBuilder.of("registrationName", "onMarkerContent"))
+            .put(ScannerEventRouter.EVENT_MODE_CHANGE, MapBuilder.of("registrationName", "onModeChange"))
+            .put(ScannerEventRouter.EVENT_ERROR, MapBuilder.of("registrationName", "onError"))
+            .build();
+    }
+
+    /**
+     * Records the time from createViewInstance to the first pre-draw pass over
+     * the fragment's view, i.e. until it is laid out in the scanner view. The
+     * SDK does not report its first camera frame, which comes later.
+     */
+    private static void recordFirstLayout(final View fragmentView, final long startNanos, final boolean warm) {
+        if (fragmentView == null) {
+            return;
+        }
+
+        fragmentView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                ViewTreeObserver observer = fragmentView.getViewTreeObserver();
+                if (observer.isAlive()) {
+                    observer.removeOnPreDrawListener(this);
+                }
+                (warm ? SodyoMetrics.firstLayoutWarm : SodyoMetrics.firstLayoutCold).recordSince(startNanos);
+                return true;
+            }
+        });
     }
 
     @Override
     public void onDropViewInstance(FrameLayout view) {
         super.onDropViewInstance(view);
 
-        Log.i(TAG,"onDropViewInstance");
+        SodyoLog.i(TAG, "onDropViewInstance");
+        ScannerEventRouter.clearTarget(view);
+        FrameTelemetry.stop(view);
 
+        if (pendingAttachView == view) {
+            // Dropped before the fragment was attached or shown
+            cancelPendingAttach();
+            return;
+        }
+
+        boolean traced = SodyoTrace.begin("RNSodyoSdkView.detachFragment");
+        try {
+            detachFragment(view);
+        } finally {
+            SodyoTrace.end(traced);
+        }
+    }
+
+    private void detachFragment(FrameLayout view) {
+        if (!SodyoBackends.get().hasScannerUi()) {
+            SodyoBackends.get().stopScanning();
+            return;
+        }
+
+        RNSodyoScannerFragment fragment = sodyoFragment;
+        boolean ownsFragment = fragment != null && fragment.getView() != null && fragment.getView().getParent() == view;
+
+        if (fragment != null && !ownsFragment) {
+            // A newer scanner view has taken the fragment over, leave it and its camera alone
+            SodyoLog.i(TAG, "onDropViewInstance - fragment owned by another view, skipping");
+            return;
+        }
+
+        boolean pool = ownsFragment && ScannerFragmentPool.isEnabled();
         sodyoFragment = null;
-        isCameraEnabled = true;
+        // Removed fragments close the camera themselves, pooled ones stay added
+        cameraController.detach(pool);
+
+        if (pool) {
+            SodyoLog.i(TAG, "parking SodyoScannerFragment in the pool");
+            ScannerFragmentPool.release(fragment);
+            return;
+        }
 
         try {
           Activity currentActivity = mCallerContext.getCurrentActivity();
           if (currentActivity != null) {
               FragmentManager fragmentManager = currentActivity.getFragmentManager();
-              Fragment fragment = fragmentManager.findFragmentByTag(TAG_FRAGMENT);
+              Fragment existing = fragmentManager.findFragmentByTag(TAG_FRAGMENT);
 
-              if (fragment != null) {
-                  fragmentManager.beginTransaction().remove(fragment).commitNowAllowingStateLoss();
+              if (existing != null && !ScannerFragmentPool.isPooled(existing)) {
+                  fragmentManager.beginTransaction().remove(existing).commitNowAllowingStateLoss();
               }
           }
         } catch (Exception e) {
-          e.printStackTrace();
+          SodyoLog.e(TAG, "detachFragment(): failed to remove fragment", e);
         }
     }
 
+    /**
+     * Troubleshooting overlay is only implemented by the iOS SDK; the prop is
+     * accepted here so the shared component spec stays platform neutral.
+     */
+    @Override
+    @ReactProp(name = "isTroubleShootingEnabled")
+    public void setIsTroubleShootingEnabled(FrameLayout view, boolean isTroubleShootingEnabled) {
+    }
+
+    @Override
     @ReactProp(name = "isEnabled", defaultBoolean=true)
     public void setIsEnabled(FrameLayout view, boolean isEnabled) {
-      if (sodyoFragment == null) {
-        return;
-      }
+      // Also before the fragment is attached, the controller applies it on attach
+      cameraController.setEnabled(isEnabled);
+    }
 
-      if (isEnabled && !isCameraEnabled) {
-        Log.i(TAG,"start camera");
-        isCameraEnabled = true;
-        sodyoFragment.startCamera();
+    /**
+     * Sends marker, mode and error events to this view (onMarkerDetect,
+     * onMarkerContent, onModeChange, onError) instead of broadcasting them.
+     */
+    @Override
+    @ReactProp(name = "directEvents")
+    public void setDirectEvents(FrameLayout view, boolean directEvents) {
+      if (directEvents) {
+          ScannerEventRouter.setTarget(view, new DirectEventTarget(view));
+      } else {
+          ScannerEventRouter.clearTarget(view);
       }
+    }
 
-      if (!isEnabled && isCameraEnabled) {
-        Log.i(TAG,"stop camera");
-        isCameraEnabled = false;
-        sodyoFragment.stopCamera();
+    /**
+     * Tracks frame pacing while this view is mounted and reports it through
+     * onFrameStats every frameTelemetryIntervalMs; 0 turns it off.
+     */
+    @Override
+    @ReactProp(name = "frameTelemetryIntervalMs")
+    public void setFrameTelemetryIntervalMs(final FrameLayout view, int frameTelemetryIntervalMs) {
+      if (frameTelemetryIntervalMs <= 0) {
+          FrameTelemetry.stop(view);
+          return;
       }
+
+      FrameTelemetry.start(view, getRefreshRate(view), frameTelemetryIntervalMs, new FrameTelemetry.Reporter() {
+          @Override
+          public void onReport(WritableMap stats) {
+              dispatchDirectEvent((ReactContext) view.getContext(), view, EVENT_FRAME_STATS, stats);
+          }
+      });
+    }
+
+    /**
+     * @return the refresh rate of the default display, or 0 when unknown
+     */
+    private static float getRefreshRate(View view) {
+        // Not attached yet when the props are first set, so view.getDisplay() would be null
+        WindowManager windowManager = (WindowManager) view.getContext().getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager == null || windowManager.getDefaultDisplay() == null) {
+            return 0;
+        }
+        return windowManager.getDefaultDisplay().getRefreshRate();
+    }
+
+    /**
+     * How long isEnabled has to hold a new value before the camera follows it.
+     * 0 applies every change immediately.
+     */
+    @Override
+    @ReactProp(name = "cameraToggleDebounceMs")
+    public void setCameraToggleDebounceMs(FrameLayout view, int cameraToggleDebounceMs) {
+      cameraController.setDebounceMs(cameraToggleDebounceMs);
     }
 }
\ No newline at end of file
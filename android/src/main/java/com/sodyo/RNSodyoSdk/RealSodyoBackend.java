@@ -0,0 +1,123 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Intent;
+
+import com.sodyo.app_sdk.data.SettingsHelper;
+import com.sodyo.sdk.Sodyo;
+import com.sodyo.sdk.SodyoInitCallback;
+import com.sodyo.sdk.SodyoMarkerContentCallback;
+import com.sodyo.sdk.SodyoModeCallback;
+import com.sodyo.sdk.SodyoScannerActivity;
+import com.sodyo.sdk.SodyoScannerCallback;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The default backend: the Sodyo SDK itself.
+ */
+final class RealSodyoBackend implements SodyoBackend {
+    @Override
+    public void init(Application application, String apiKey, SodyoInitCallback callback) {
+        Sodyo.init(application, apiKey, callback);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return Sodyo.isInitialized();
+    }
+
+    @Override
+    public void setCallbacks(SodyoScannerCallback scannerCallback, SodyoMarkerContentCallback markerContentCallback, SodyoModeCallback modeCallback) {
+        Sodyo.getInstance().setSodyoScannerCallback(scannerCallback);
+        Sodyo.getInstance().setSodyoMarkerContentCallback(markerContentCallback);
+        Sodyo.getInstance().setSodyoModeCallback(modeCallback);
+    }
+
+    @Override
+    public boolean hasScannerUi() {
+        return true;
+    }
+
+    @Override
+    public void openScanner(Activity activity, int requestCode) {
+        activity.startActivityForResult(new Intent(activity, SodyoScannerActivity.class), requestCode);
+    }
+
+    @Override
+    public void closeScanner(Activity activity, int requestCode) {
+        activity.finishActivity(requestCode);
+    }
+
+    @Override
+    public void setUserInfo(Map<String, Object> userInfo) {
+        Sodyo.getInstance().setUserInfo(userInfo);
+    }
+
+    @Override
+    public void setCustomAdLabel(String label) {
+        Sodyo.setCustomAdLabel(label);
+    }
+
+    @Override
+    public void setAppUserId(String userId) {
+        Sodyo.setAppUserId(userId);
+    }
+
+    @Override
+    public void setScannerParams(Map<String, String> params) {
+        Sodyo.setScannerParams(params);
+    }
+
+    @Override
+    public void addScannerParam(String key, String value) {
+        Sodyo.addScannerParams(key, value);
+    }
+
+    @Override
+    public void startScanning() {
+        Sodyo.startScanning();
+    }
+
+    @Override
+    public void stopScanning() {
+        Sodyo.stopScanning();
+    }
+
+    @Override
+    public void setDynamicProfile(HashMap<String, Object> profile) {
+        Sodyo.setDynamicProfile(profile);
+    }
+
+    @Override
+    public void setDynamicProfileValue(String key, String value) {
+        Sodyo.setDynamicProfileValue(key, value);
+    }
+
+    @Override
+    public void performMarker(String markerId, Activity activity, Map<String, Object> customProperties) {
+        Sodyo.performMarker(markerId, activity, customProperties);
+    }
+
+    @Override
+    public void startTroubleshoot(Activity activity) {
+        Sodyo.startTroubleshoot(activity);
+    }
+
+    @Override
+    public void setMode(Activity activity, SettingsHelper.ScannerViewMode mode) {
+        Sodyo.setMode(activity, mode);
+    }
+
+    @Override
+    public SettingsHelper.ScannerViewMode getMode() {
+        return Sodyo.getMode();
+    }
+
+    @Override
+    public void setSodyoLogoVisible(boolean isVisible) {
+        Sodyo.setSodyoLogoVisible(isVisible);
+    }
+}
@@ -0,0 +1,449 @@
+package com.sodyo.RNSodyoSDK;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Append-only history of marker detections and marker content, kept in
+ * memory-mapped segment files so an append is a memory copy and not a write().
+ * <p>
+ * Segments are named journal-&lt;seq&gt;.bin and preallocated to the segment
+ * size; when the current one is full a new one is started and the oldest
+ * beyond the segment limit is deleted. A segment starts with an 8 byte header
+ * (magic, version) followed by records:
+ * <pre>
+ * int length (of the rest of the record, 0 after the last one)
+ * long timestamp (ms since epoch)
+ * byte kind
+ * short markerId length, markerId (UTF-8)
+ * short markerType length (-1 when absent), markerType
+ * int data length (-1 when absent), data
+ * </pre>
+ * The length is written last, so a record cut short by a crash is never read.
+ */
+final class ScanJournal {
+    private static final String TAG = "ScanJournal";
+
+    static final long DEFAULT_SEGMENT_BYTES = 1024 * 1024;
+    static final int DEFAULT_MAX_SEGMENTS = 4;
+    static final int DEFAULT_QUERY_LIMIT = 100;
+
+    private static final int MAGIC = 0x534A524E; // "SJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final long MIN_SEGMENT_BYTES = 4096;
+
+    // Content larger than this is not journaled, the record keeps only the marker
+    private static final int MAX_DATA_BYTES = 64 * 1024;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    enum Kind {
+        DETECT("detect"),
+        CONTENT("content");
+
+        final String jsName;
+
+        Kind(String jsName) {
+            this.jsName = jsName;
+        }
+
+        /**
+         * @return the kind for a JS name (detect/content), or null when unknown
+         */
+        @Nullable
+        static Kind fromJsName(@Nullable String name) {
+            for (Kind kind : values()) {
+                if (kind.jsName.equals(name)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class Record {
+        final long timestamp;
+        final Kind kind;
+        final String markerId;
+        final @Nullable String markerType;
+        final @Nullable String data;
+
+        Record(long timestamp, Kind kind, String markerId, @Nullable String markerType, @Nullable String data) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.markerId = markerId;
+            this.markerType = markerType;
+            this.data = data;
+        }
+    }
+
+    private volatile boolean enabled;
+
+    @Nullable
+    private File dir;
+    private long segmentBytes = DEFAULT_SEGMENT_BYTES;
+    private int maxSegments = DEFAULT_MAX_SEGMENTS;
+
+    // Current segment, null while disabled or after an I/O error
+    private long currentSeq;
+    @Nullable
+    private RandomAccessFile currentFile;
+    @Nullable
+    private MappedByteBuffer current;
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets where segments live; needed before anything else, also to query or
+     * clear segments written in an earlier run.
+     */
+    synchronized void setDirectory(File dir) {
+        if (!dir.equals(this.dir)) {
+            closeCurrent();
+            this.dir = dir;
+            if (enabled) {
+                openCurrent();
+            }
+        }
+    }
+
+    /**
+     * Values <= 0 fall back to the defaults. Existing segments are kept, also
+     * when disabling, so they can still be queried.
+     */
+    synchronized void configure(boolean enabled, long segmentBytes, int maxSegments) {
+        closeCurrent();
+
+        this.segmentBytes = segmentBytes > 0 ? Math.max(MIN_SEGMENT_BYTES, segmentBytes) : DEFAULT_SEGMENT_BYTES;
+        this.maxSegments = maxSegments > 0 ? maxSegments : DEFAULT_MAX_SEGMENTS;
+        this.enabled = enabled;
+
+        if (enabled) {
+            openCurrent();
+        }
+    }
+
+    void append(Kind kind, String markerId, @Nullable String markerType, @Nullable String data) {
+        byte[] id = truncate(markerId.getBytes(UTF_8), Short.MAX_VALUE);
+        byte[] type = markerType != null ? truncate(markerType.getBytes(UTF_8), Short.MAX_VALUE) : null;
+        byte[] payload = data != null ? data.getBytes(UTF_8) : null;
+        if (payload != null && payload.length > MAX_DATA_BYTES) {
+            SodyoLog.w(TAG, "append(): %s bytes of data for %s exceed the record limit, journaling the marker only", payload.length, markerId);
+            payload = null;
+        }
+
+        int length = 8 + 1 + 2 + id.length + 2 + (type != null ? type.length : 0) + 4 + (payload != null ? payload.length : 0);
+        long timestamp = System.currentTimeMillis();
+
+        synchronized (this) {
+            if (!enabled) {
+                return;
+            }
+
+            MappedByteBuffer buffer = current;
+            if (buffer != null && buffer.remaining() < 4 + length + 4 && buffer.position() > HEADER_BYTES) {
+                rotate();
+                buffer = current;
+            }
+            if (buffer == null) {
+                return;
+            }
+            if (buffer.remaining() < 4 + length + 4) {
+                SodyoLog.w(TAG, "append(): %s byte record for %s does not fit in a segment, skipping", length, markerId);
+                return;
+            }
+
+            int start = buffer.position();
+            buffer.position(start + 4);
+            buffer.putLong(timestamp);
+            buffer.put((byte) kind.ordinal());
+            buffer.putShort((short) id.length);
+            buffer.put(id);
+            if (type != null) {
+                buffer.putShort((short) type.length);
+                buffer.put(type);
+            } else {
+                buffer.putShort((short) -1);
+            }
+            if (payload != null) {
+                buffer.putInt(payload.length);
+                buffer.put(payload);
+            } else {
+                buffer.putInt(-1);
+            }
+            buffer.putInt(start, length);
+        }
+    }
+
+    /**
+     * @param markerId only records of this marker, when not null
+     * @param kind     only records of this kind, when not null
+     * @return the newest records with fromMs <= timestamp <= toMs, newest first, at most limit
+     */
+    synchronized List<Record> query(long fromMs, long toMs, @Nullable String markerId, @Nullable Kind kind, int limit) {
+        int max = limit > 0 ? limit : DEFAULT_QUERY_LIMIT;
+        ArrayDeque<Record> newest = new ArrayDeque<>(Math.min(max, 1024));
+
+        for (File segment : listSegments()) {
+            ByteBuffer buffer = segmentSeq(segment) == currentSeq && current != null
+                ? readableCurrent()
+                : mapReadOnly(segment);
+            if (buffer == null) {
+                continue;
+            }
+
+            Record record;
+            while ((record = next(buffer)) != null) {
+                if (record.timestamp < fromMs || record.timestamp > toMs
+                    || (markerId != null && !markerId.equals(record.markerId))
+                    || (kind != null && kind != record.kind)) {
+                    continue;
+                }
+                if (newest.size() == max) {
+                    newest.pollFirst();
+                }
+                newest.addLast(record);
+            }
+        }
+
+        List<Record> result = new ArrayList<>(newest.size());
+        while (!newest.isEmpty()) {
+            result.add(newest.pollLast());
+        }
+        return result;
+    }
+
+    /**
+     * Deletes all segments; an enabled journal continues in a fresh one.
+     */
+    synchronized void clear() {
+        closeCurrent();
+        for (File segment : listSegments()) {
+            if (!segment.delete()) {
+                SodyoLog.w(TAG, "clear(): could not delete %s", segment);
+            }
+        }
+        if (enabled) {
+            openCurrent();
+        }
+    }
+
+    private void openCurrent() {
+        File[] segments = listSegments();
+        currentSeq = segments.length > 0 ? segmentSeq(segments[segments.length - 1]) : 0;
+
+        File file = segmentFile(currentSeq);
+        if (!map(file)) {
+            return;
+        }
+
+        MappedByteBuffer buffer = current;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || file.length() > segmentBytes) {
+            // Not ours, from another version, or sized for a previous configuration: start a new segment
+            if (segments.length > 0 && buffer.getInt(0) != 0) {
+                rotate();
+                return;
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+        }
+
+        // Continue after the last complete record
+        buffer.position(HEADER_BYTES);
+        while (next(buffer) != null) {
+        }
+    }
+
+    private void rotate() {
+        closeCurrent();
+        currentSeq++;
+        SodyoLog.i(TAG, "rotate(): starting segment %s", currentSeq);
+
+        if (map(segmentFile(currentSeq))) {
+            current.putInt(0, MAGIC);
+            current.putInt(4, VERSION);
+            current.position(HEADER_BYTES);
+        }
+
+        File[] segments = listSegments();
+        for (int i = 0; i < segments.length - maxSegments; i++) {
+            if (!segments[i].delete()) {
+                SodyoLog.w(TAG, "rotate(): could not delete %s", segments[i]);
+            }
+        }
+    }
+
+    private boolean map(File file) {
+        if (dir == null || (!dir.isDirectory() && !dir.mkdirs())) {
+            SodyoLog.e(TAG, "map(): cannot create journal directory %s", dir);
+            return false;
+        }
+
+        try {
+            currentFile = new RandomAccessFile(file, "rw");
+            current = currentFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, currentFile.length()));
+            return true;
+        } catch (IOException e) {
+            SodyoLog.e(TAG, "map(): failed to map " + file, e);
+            closeCurrent();
+            return false;
+        }
+    }
+
+    private void closeCurrent() {
+        if (current != null) {
+            current.force();
+            current = null;
+        }
+        if (currentFile != null) {
+            try {
+                currentFile.close();
+            } catch (IOException e) {
+                SodyoLog.w(TAG, "closeCurrent(): %s", e.getMessage());
+            }
+            currentFile = null;
+        }
+    }
+
+    private ByteBuffer readableCurrent() {
+        ByteBuffer buffer = current.duplicate();
+        buffer.limit(current.position());
+        buffer.position(HEADER_BYTES);
+        return buffer;
+    }
+
+    @Nullable
+    private static ByteBuffer mapReadOnly(File file) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            ByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            buffer.position(HEADER_BYTES);
+            return buffer;
+        } catch (IOException e) {
+            SodyoLog.e(TAG, "mapReadOnly(): failed to map " + file, e);
+            return null;
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the record at the buffer position and moves past it.
+     *
+     * @return null at the end of the written records, the position is left there
+     */
+    @Nullable
+    private static Record next(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - 4) {
+            return null;
+        }
+
+        try {
+            buffer.position(start + 4);
+            long timestamp = buffer.getLong();
+            int kindOrdinal = buffer.get();
+            String markerId = readString(buffer, buffer.getShort());
+            String markerType = readString(buffer, buffer.getShort());
+            String data = readString(buffer, buffer.getInt());
+
+            buffer.position(start + 4 + length);
+            Kind kind = kindOrdinal == Kind.CONTENT.ordinal() ? Kind.CONTENT : Kind.DETECT;
+            return new Record(timestamp, kind, markerId != null ? markerId : "", markerType, data);
+        } catch (RuntimeException e) {
+            SodyoLog.w(TAG, "next(): corrupt record at %s, stopping", start);
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static byte[] truncate(byte[] bytes, int max) {
+        return bytes.length > max ? Arrays.copyOf(bytes, max) : bytes;
+    }
+
+    private File segmentFile(long seq) {
+        return new File(dir, SEGMENT_PREFIX + seq + SEGMENT_SUFFIX);
+    }
+
+    private File[] listSegments() {
+        File[] files = dir != null ? dir.listFiles() : null;
+        if (files == null) {
+            return new File[0];
+        }
+
+        List<File> segments = new ArrayList<>();
+        for (File file : files) {
+            if (segmentSeq(file) >= 0) {
+                segments.add(file);
+            }
+        }
+
+        File[] sorted = segments.toArray(new File[0]);
+        Arrays.sort(sorted, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long seqA = segmentSeq(a);
+                long seqB = segmentSeq(b);
+                return seqA < seqB ? -1 : (seqA == seqB ? 0 : 1);
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * @return the sequence number of a segment file, -1 for other files
+     */
+    private static long segmentSeq(File file) {
+        String name = file.getName();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+
+import com.facebook.react.bridge.LifecycleEventListener;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Drives startCamera()/stopCamera() of the scanner fragment from two inputs:
+ * the isEnabled prop and the host activity lifecycle.
+ * <p>
+ * Prop changes are debounced: the camera only follows once the prop has held
+ * its value for the debounce window, so a burst of toggles costs at most one
+ * transition, and none if it ends where it started. Host pause/resume apply
+ * right away. The decisions are made on the main thread, the camera calls
+ * themselves run in order on a background HandlerThread so opening the camera
+ * never blocks a frame. The main thread never waits for the camera thread,
+ * see {@link RNSodyoScannerFragment} for how the fragment's own lifecycle
+ * fits in.
+ */
+final class ScannerCameraController implements LifecycleEventListener {
+    private static final String TAG = "ScannerCameraController";
+
+    interface OpenListener {
+        /**
+         * Called on the main thread once the camera was started for the attached fragment.
+         */
+        void onCameraOpened(double openMs);
+    }
+
+    private static HandlerThread cameraThread;
+    private static Handler cameraHandler;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Nullable
+    private RNSodyoScannerFragment fragment;
+
+    @Nullable
+    private OpenListener openListener;
+
+    private boolean cameraRunning;
+    private boolean enabled = true;
+    private boolean hostResumed = true;
+    private long debounceMs;
+
+    private final Runnable applyRunnable = new Runnable() {
+        @Override
+        public void run() {
+            apply();
+        }
+    };
+
+    private static synchronized Handler cameraHandler() {
+        if (cameraHandler == null) {
+            cameraThread = new HandlerThread("SodyoCamera");
+            cameraThread.start();
+            cameraHandler = new Handler(cameraThread.getLooper());
+        }
+        return cameraHandler;
+    }
+
+    /**
+     * Runs task on the camera thread, after the camera calls already queued.
+     */
+    static void postToCameraThread(Runnable task) {
+        cameraHandler().post(task);
+    }
+
+    /**
+     * Takes control of fragment. cameraRunning tells whether its camera is
+     * currently on; the controller brings it in line with the current inputs.
+     * openListener, if any, hears about the first camera start it performs.
+     */
+    void attach(RNSodyoScannerFragment fragment, boolean cameraRunning, @Nullable OpenListener openListener) {
+        mainHandler.removeCallbacks(applyRunnable);
+        this.fragment = fragment;
+        this.cameraRunning = cameraRunning;
+        this.openListener = openListener;
+        apply();
+    }
+
+    /**
+     * Releases the fragment; pending toggles are dropped. With stopCamera the
+     * camera is stopped after any camera call still in flight.
+     */
+    void detach(boolean stopCamera) {
+        mainHandler.removeCallbacks(applyRunnable);
+
+        final RNSodyoScannerFragment current = fragment;
+        if (stopCamera && current != null && cameraRunning) {
+            runOnCameraThread(current, false, null);
+        }
+
+        fragment = null;
+        openListener = null;
+        cameraRunning = false;
+    }
+
+    /**
+     * Back to the prop defaults, for a new view instance.
+     */
+    void reset() {
+        enabled = true;
+    }
+
+    void setDebounceMs(long debounceMs) {
+        this.debounceMs = Math.max(0, debounceMs);
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        mainHandler.removeCallbacks(applyRunnable);
+
+        if (debounceMs > 0) {
+            mainHandler.postDelayed(applyRunnable, debounceMs);
+        } else {
+            apply();
+        }
+    }
+
+    @Override
+    public void onHostResume() {
+        hostResumed = true;
+        apply();
+    }
+
+    @Override
+    public void onHostPause() {
+        hostResumed = false;
+        apply();
+    }
+
+    @Override
+    public void onHostDestroy() {
+        hostResumed = false;
+        detach(false);
+    }
+
+    private void apply() {
+        mainHandler.removeCallbacks(applyRunnable);
+
+        RNSodyoScannerFragment current = fragment;
+        boolean shouldRun = enabled && hostResumed;
+        if (current == null || shouldRun == cameraRunning) {
+            return;
+        }
+
+        SodyoLog.i(TAG, "%s camera (enabled: %s, hostResumed: %s)", shouldRun ? "start" : "stop", enabled, hostResumed);
+        cameraRunning = shouldRun;
+
+        OpenListener listener = null;
+        if (shouldRun) {
+            listener = openListener;
+            openListener = null;
+        }
+        runOnCameraThread(current, shouldRun, listener);
+    }
+
+    private void runOnCameraThread(final RNSodyoScannerFragment target, final boolean start, @Nullable final OpenListener listener) {
+        cameraHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                long begin = System.nanoTime();
+                FrameTelemetry.mark(start ? FrameTelemetry.Phase.CAMERA_START : FrameTelemetry.Phase.CAMERA_STOP, begin);
+                boolean traced = SodyoTrace.begin(start ? "SodyoCamera.startCamera" : "SodyoCamera.stopCamera");
+                try {
+                    if (start) {
+                        target.startCamera();
+                    } else {
+                        target.stopCamera();
+                    }
+                } catch (RuntimeException e) {
+                    SodyoLog.e(TAG, start ? "startCamera failed" : "stopCamera failed", e);
+                    return;
+                } finally {
+                    SodyoTrace.end(traced);
+                }
+
+                final long elapsed = System.nanoTime() - begin;
+                (start ? SodyoMetrics.cameraStart : SodyoMetrics.cameraStop).recordNanos(elapsed);
+
+                if (listener != null) {
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onCameraOpened(elapsed / 1e6);
+                        }
+                    });
+                }
+            }
+        });
+    }
+}
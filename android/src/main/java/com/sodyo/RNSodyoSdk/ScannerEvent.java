@@ -0,0 +1,45 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Direct event of the scanner view, e.g. topScannerReady. The JS prop name is
+ * mapped in {@link RNSodyoSdkView#getExportedCustomDirectEventTypeConstants()}.
+ */
+final class ScannerEvent extends Event<ScannerEvent> {
+    private final String eventName;
+    private final @Nullable WritableMap data;
+
+    ScannerEvent(int surfaceId, int viewTag, String eventName, @Nullable WritableMap data) {
+        super(surfaceId, viewTag);
+        this.eventName = eventName;
+        this.data = data;
+    }
+
+    @Override
+    public String getEventName() {
+        return eventName;
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    protected WritableMap getEventData() {
+        return data;
+    }
+
+    // Still called by old-architecture hosts that predate getEventData()
+    @Override
+    @SuppressWarnings("deprecation")
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        rctEventEmitter.receiveEvent(getViewTag(), getEventName(), getEventData());
+    }
+}
@@ -0,0 +1,93 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sends scanner output to the mounted scanner view as direct events instead of
+ * broadcasting it through RCTDeviceEventEmitter, for a Scanner that asked for
+ * them (directEvents prop). The last such view to mount gets the events.
+ */
+final class ScannerEventRouter {
+    static final String EVENT_MARKER_DETECT = "topMarkerDetect";
+    static final String EVENT_MARKER_CONTENT = "topMarkerContent";
+    static final String EVENT_MODE_CHANGE = "topModeChange";
+    static final String EVENT_ERROR = "topError";
+
+    interface Target {
+        /**
+         * @return false when the view cannot take events (anymore)
+         */
+        boolean dispatch(String eventName, @Nullable WritableMap data);
+    }
+
+    // Module event name -> direct event name
+    private static final Map<String, String> DIRECT_EVENTS = new HashMap<>();
+
+    static {
+        DIRECT_EVENTS.put("EventMarkerDetectSuccess", EVENT_MARKER_DETECT);
+        DIRECT_EVENTS.put("EventMarkerDetectBatch", EVENT_MARKER_DETECT);
+        DIRECT_EVENTS.put("EventMarkerDetectError", EVENT_ERROR);
+        DIRECT_EVENTS.put("EventSodyoError", EVENT_ERROR);
+        DIRECT_EVENTS.put("EventMarkerContent", EVENT_MARKER_CONTENT);
+        DIRECT_EVENTS.put("ModeChangeCallback", EVENT_MODE_CHANGE);
+    }
+
+    private static final class Registration {
+        final Object owner;
+        final Target target;
+
+        Registration(Object owner, Target target) {
+            this.owner = owner;
+            this.target = target;
+        }
+    }
+
+    @Nullable
+    private static volatile Registration registration;
+
+    private ScannerEventRouter() {
+    }
+
+    static synchronized void setTarget(Object owner, Target target) {
+        registration = new Registration(owner, target);
+    }
+
+    /**
+     * Removes the target of owner, if it is still the current one.
+     */
+    static synchronized void clearTarget(Object owner) {
+        Registration current = registration;
+        if (current != null && current.owner == owner) {
+            registration = null;
+        }
+    }
+
+    static boolean hasTarget() {
+        return registration != null;
+    }
+
+    /**
+     * @return true when the event went to the scanner view and must not be broadcast
+     */
+    static boolean route(String eventName, @Nullable WritableMap params) {
+        Registration current = registration;
+        if (current == null) {
+            return false;
+        }
+
+        String directName = DIRECT_EVENTS.get(eventName);
+        if (directName == null) {
+            return false;
+        }
+
+        if (params != null && EVENT_ERROR.equals(directName)) {
+            params.putString("source", "EventSodyoError".equals(eventName) ? "sdk" : "detect");
+        }
+        return current.target.dispatch(directName, params);
+    }
+}
@@ -0,0 +1,153 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.app.Activity;
+import android.app.Fragment;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import javax.annotation.Nullable;
+
+
+/**
+ * Keeps the last {@link RNSodyoScannerFragment} alive after its scanner view is
+ * dropped, so the next scanner view can reattach it instead of paying for a
+ * new fragment and a cold camera start.
+ * <p>
+ * A released fragment stays added to its activity, with its view detached and
+ * the camera stopped, for the grace period; after that it is removed. It is
+ * marked parked meanwhile, so a host resume does not leave its camera running.
+ * Opt-in, main thread only.
+ */
+final class ScannerFragmentPool {
+    private static final String TAG = "ScannerFragmentPool";
+
+    static final long DEFAULT_GRACE_PERIOD_MS = 30 * 1000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static volatile boolean enabled;
+    private static volatile long gracePeriodMs = DEFAULT_GRACE_PERIOD_MS;
+
+    @Nullable
+    private static RNSodyoScannerFragment pooled;
+
+    private static final Runnable expire = new Runnable() {
+        @Override
+        public void run() {
+            SodyoLog.i(TAG, "grace period over, removing pooled fragment");
+            removePooled();
+        }
+    };
+
+    private ScannerFragmentPool() {
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Values <= 0 for gracePeriodMs fall back to the default. Disabling drops the pooled fragment.
+     */
+    static void configure(final boolean enable, long grace) {
+        enabled = enable;
+        gracePeriodMs = grace > 0 ? grace : DEFAULT_GRACE_PERIOD_MS;
+
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mainHandler.removeCallbacks(expire);
+                if (!enable) {
+                    removePooled();
+                } else if (pooled != null) {
+                    mainHandler.postDelayed(expire, gracePeriodMs);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the pooled fragment if it is still attached to activity, or null
+     */
+    @Nullable
+    static RNSodyoScannerFragment acquire(Activity activity) {
+        RNSodyoScannerFragment fragment = pooled;
+        if (!enabled || fragment == null) {
+            return null;
+        }
+
+        mainHandler.removeCallbacks(expire);
+        pooled = null;
+        fragment.setParked(false);
+
+        if (fragment.getActivity() != activity || !fragment.isAdded() || fragment.getView() == null) {
+            SodyoLog.i(TAG, "acquire(): pooled fragment belongs to another activity or lost its view, discarding");
+            remove(fragment);
+            return null;
+        }
+
+        detachView(fragment.getView());
+        return fragment;
+    }
+
+    /**
+     * Parks fragment for reuse when pooling is on, otherwise removes it right away.
+     * The caller stops the camera first, see {@link ScannerCameraController#detach}.
+     */
+    static void release(RNSodyoScannerFragment fragment) {
+        if (!enabled) {
+            remove(fragment);
+            return;
+        }
+
+        if (pooled != null && pooled != fragment) {
+            remove(pooled);
+        }
+
+        View view = fragment.getView();
+        if (view != null) {
+            detachView(view);
+        }
+
+        fragment.setParked(true);
+        pooled = fragment;
+        mainHandler.removeCallbacks(expire);
+        mainHandler.postDelayed(expire, gracePeriodMs);
+    }
+
+    /**
+     * @return true when fragment is parked in the pool and must not be removed by the caller
+     */
+    static boolean isPooled(@Nullable Fragment fragment) {
+        return fragment != null && fragment == pooled;
+    }
+
+    private static void removePooled() {
+        RNSodyoScannerFragment fragment = pooled;
+        pooled = null;
+        if (fragment != null) {
+            remove(fragment);
+        }
+    }
+
+    private static void remove(Fragment fragment) {
+        try {
+            Activity activity = fragment.getActivity();
+            if (activity != null && fragment.isAdded()) {
+                activity.getFragmentManager().beginTransaction().remove(fragment).commitAllowingStateLoss();
+            }
+        } catch (Exception e) {
+            SodyoLog.e(TAG, "remove(): failed to remove fragment", e);
+        }
+    }
+
+    private static void detachView(View view) {
+        ViewParent parent = view.getParent();
+        if (parent instanceof ViewGroup) {
+            ((ViewGroup) parent).removeView(view);
+        }
+    }
+}
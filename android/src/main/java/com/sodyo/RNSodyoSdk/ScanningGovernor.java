@@ -0,0 +1,399 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Scales scanning down when nobody is using it, for long unattended sessions.
+ * <p>
+ * While the device is hot (thermal status at or above the threshold, API 29+)
+ * or in battery saver, the throttled scanner params are applied, and the
+ * normal ones once both clear. With an idle timeout, scanning is stopped when
+ * no marker was detected for that long, and restarted by a touch on a scanner
+ * view or by JS; the idle timer only runs once JS has started scanning. JS
+ * starting or stopping scanning itself takes precedence: the governor only
+ * restarts scanning it stopped. Each change is reported to
+ * {@link Actions#onStateChange}. Opt-in, all members are thread-safe.
+ */
+final class ScanningGovernor {
+    private static final String TAG = "ScanningGovernor";
+
+    enum State {
+        ACTIVE("active"),
+        THROTTLED("throttled"),
+        IDLE("idle");
+
+        final String jsName;
+
+        State(String jsName) {
+            this.jsName = jsName;
+        }
+    }
+
+    interface Actions {
+        /**
+         * Applies params on top of the current scanner params, in order with the other SDK calls.
+         */
+        void applyScannerParams(Map<String, String> params);
+
+        void setScanning(boolean scanning);
+
+        void onStateChange(WritableMap event);
+    }
+
+    // Indexed by PowerManager.THERMAL_STATUS_*, which run from NONE (0) to SHUTDOWN (6)
+    private static final String[] THERMAL_STATUS_NAMES = {
+        "none", "light", "moderate", "severe", "critical", "emergency", "shutdown",
+    };
+
+    static final class Config {
+        /** 0 never stops scanning for inactivity. */
+        long idleTimeoutMs;
+        /** A PowerManager.THERMAL_STATUS_* value. */
+        int thermalThreshold = 3;
+        boolean throttleOnPowerSave = true;
+        boolean resumeOnTouch = true;
+        Map<String, String> throttledParams = Collections.emptyMap();
+        Map<String, String> normalParams = Collections.emptyMap();
+    }
+
+    // The governor touches on scanner views go to
+    @Nullable
+    private static volatile ScanningGovernor current;
+
+    private final Context context;
+    private final Actions actions;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Guarded by this
+    @Nullable
+    private Config config;
+    private State state = State.ACTIVE;
+    private boolean throttled;
+    private boolean stoppedByGovernor;
+    // Until JS starts scanning there is nothing to stop for inactivity
+    private boolean scanningStopped = true;
+    private int thermalStatus;
+    private boolean powerSave;
+    private long transitions;
+    @Nullable
+    private BroadcastReceiver powerSaveReceiver;
+    // A PowerManager.OnThermalStatusChangedListener, typed loosely for API < 29
+    @Nullable
+    private Object thermalListener;
+
+    // SystemClock.elapsedRealtime() of the last detection, touch or resume
+    private volatile long lastActivityMs = SystemClock.elapsedRealtime();
+
+    private final Runnable idleCheck = new Runnable() {
+        @Override
+        public void run() {
+            checkIdle();
+        }
+    };
+
+    ScanningGovernor(Context context, Actions actions) {
+        this.context = context.getApplicationContext();
+        this.actions = actions;
+    }
+
+    /**
+     * @return the PowerManager.THERMAL_STATUS_* value for a JS name, or -1 when unknown
+     */
+    static int thermalStatusFromJsName(@Nullable String name) {
+        for (int i = 0; i < THERMAL_STATUS_NAMES.length; i++) {
+            if (THERMAL_STATUS_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Touch on a scanner view, any thread.
+     */
+    static void onTouch() {
+        ScanningGovernor governor = current;
+        if (governor != null) {
+            governor.resume("touch", true);
+        }
+    }
+
+    /**
+     * Replaces the configuration, null turns the governor off and restores
+     * normal params and scanning if it had changed them.
+     */
+    synchronized void configure(@Nullable Config next) {
+        boolean wasEnabled = config != null;
+        if (next == null) {
+            if (!wasEnabled) {
+                return;
+            }
+            SodyoLog.i(TAG, "configure() - disabled");
+            stopWatching();
+            if (throttled && !config.normalParams.isEmpty()) {
+                actions.applyScannerParams(config.normalParams);
+            }
+            if (stoppedByGovernor) {
+                actions.setScanning(true);
+            }
+            config = null;
+            throttled = false;
+            stoppedByGovernor = false;
+            setState(State.ACTIVE, "disabled");
+            return;
+        }
+
+        SodyoLog.i(TAG, "configure() - idleTimeoutMs: %s, thermalThreshold: %s, throttleOnPowerSave: %s",
+            next.idleTimeoutMs, THERMAL_STATUS_NAMES[next.thermalThreshold], next.throttleOnPowerSave);
+        config = next;
+        if (!wasEnabled) {
+            startWatching();
+        }
+
+        lastActivityMs = SystemClock.elapsedRealtime();
+        boolean reported = updateThrottle(wasEnabled ? "config" : "enabled", true);
+        if (!wasEnabled && !reported) {
+            setState(State.ACTIVE, "enabled");
+        }
+        if (!scanningStopped) {
+            scheduleIdleCheck(next.idleTimeoutMs);
+        }
+    }
+
+    /**
+     * Drops listeners and timers without touching the SDK, for a module going away.
+     */
+    synchronized void shutdown() {
+        if (config != null) {
+            stopWatching();
+            config = null;
+        }
+    }
+
+    /**
+     * Marker detected, any thread; cheap enough for every detection.
+     */
+    void onDetect() {
+        lastActivityMs = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Scanning started or stopped by JS, which overrides an idle stop.
+     */
+    synchronized void onScanningChanged(boolean scanning) {
+        scanningStopped = !scanning;
+        stoppedByGovernor = false;
+        if (config == null) {
+            return;
+        }
+
+        if (!scanning) {
+            mainHandler.removeCallbacks(idleCheck);
+            return;
+        }
+
+        lastActivityMs = SystemClock.elapsedRealtime();
+        if (state == State.IDLE) {
+            setState(throttled ? State.THROTTLED : State.ACTIVE, "js");
+        }
+        scheduleIdleCheck(config.idleTimeoutMs);
+    }
+
+    /**
+     * Leaves the idle state, restarting scanning if the governor stopped it.
+     *
+     * @param touch whether this comes from a touch, which may be disabled by config
+     */
+    synchronized void resume(String reason, boolean touch) {
+        if (config == null || (touch && !config.resumeOnTouch)) {
+            return;
+        }
+
+        lastActivityMs = SystemClock.elapsedRealtime();
+        if (state != State.IDLE) {
+            return;
+        }
+
+        SodyoLog.i(TAG, "resume() - reason: %s, restart scanning: %s", reason, stoppedByGovernor);
+        if (stoppedByGovernor) {
+            stoppedByGovernor = false;
+            actions.setScanning(true);
+        }
+        setState(throttled ? State.THROTTLED : State.ACTIVE, reason);
+        scheduleIdleCheck(config.idleTimeoutMs);
+    }
+
+    synchronized WritableMap snapshot() {
+        WritableMap map = Arguments.createMap();
+        map.putBoolean("enabled", config != null);
+        putStatus(map);
+        map.putDouble("transitions", transitions);
+        return map;
+    }
+
+    private void putStatus(WritableMap map) {
+        map.putString("state", state.jsName);
+        map.putBoolean("throttled", throttled);
+        map.putString("thermalStatus", thermalStatusName(thermalStatus));
+        map.putBoolean("powerSave", powerSave);
+        map.putBoolean("stoppedByGovernor", stoppedByGovernor);
+    }
+
+    private synchronized void checkIdle() {
+        if (config == null || config.idleTimeoutMs <= 0 || state == State.IDLE || scanningStopped) {
+            return;
+        }
+
+        long idleMs = SystemClock.elapsedRealtime() - lastActivityMs;
+        if (idleMs < config.idleTimeoutMs) {
+            scheduleIdleCheck(config.idleTimeoutMs - idleMs);
+            return;
+        }
+
+        SodyoLog.i(TAG, "no detection for %sms, stopping scanning", idleMs);
+        stoppedByGovernor = true;
+        actions.setScanning(false);
+        setState(State.IDLE, "idle");
+    }
+
+    private void scheduleIdleCheck(long delayMs) {
+        mainHandler.removeCallbacks(idleCheck);
+        if (delayMs > 0) {
+            mainHandler.postDelayed(idleCheck, delayMs);
+        }
+    }
+
+    /**
+     * @param force applies the throttled params even if the throttle state did not change
+     * @return whether the throttle state changed and was reported
+     */
+    private boolean updateThrottle(String reason, boolean force) {
+        if (config == null) {
+            return false;
+        }
+
+        boolean next = thermalStatus >= config.thermalThreshold || (config.throttleOnPowerSave && powerSave);
+        if (next == throttled && !force) {
+            return false;
+        }
+
+        boolean changed = next != throttled;
+        throttled = next;
+        Map<String, String> params = throttled ? config.throttledParams : config.normalParams;
+        // Starting out unthrottled needs no params, the current ones are the normal ones
+        if (!params.isEmpty() && (changed || throttled)) {
+            actions.applyScannerParams(params);
+        }
+
+        if (changed) {
+            SodyoLog.i(TAG, "%s (thermalStatus: %s, powerSave: %s)", throttled ? "throttling" : "unthrottling",
+                thermalStatusName(thermalStatus), powerSave);
+            setState(state == State.IDLE ? State.IDLE : throttled ? State.THROTTLED : State.ACTIVE, reason);
+        }
+        return changed;
+    }
+
+    private void setState(State next, String reason) {
+        state = next;
+        transitions++;
+
+        WritableMap event = Arguments.createMap();
+        putStatus(event);
+        event.putString("reason", reason);
+        actions.onStateChange(event);
+    }
+
+    private void startWatching() {
+        current = this;
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            powerSave = powerManager.isPowerSaveMode();
+            powerSaveReceiver = new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context receiverContext, Intent intent) {
+                    PowerManager manager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+                    onPowerSaveChanged(manager != null && manager.isPowerSaveMode());
+                }
+            };
+            context.registerReceiver(powerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            thermalStatus = powerManager.getCurrentThermalStatus();
+            PowerManager.OnThermalStatusChangedListener listener = new PowerManager.OnThermalStatusChangedListener() {
+                @Override
+                public void onThermalStatusChanged(int status) {
+                    onThermalStatus(status);
+                }
+            };
+            thermalListener = listener;
+            // Delivered on the main thread
+            powerManager.addThermalStatusListener(listener);
+        }
+    }
+
+    private void stopWatching() {
+        if (current == this) {
+            current = null;
+        }
+        mainHandler.removeCallbacks(idleCheck);
+
+        if (powerSaveReceiver != null) {
+            try {
+                context.unregisterReceiver(powerSaveReceiver);
+            } catch (IllegalArgumentException e) {
+                SodyoLog.w(TAG, "stopWatching(): power save receiver was not registered");
+            }
+            powerSaveReceiver = null;
+        }
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (thermalListener != null && powerManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            powerManager.removeThermalStatusListener((PowerManager.OnThermalStatusChangedListener) thermalListener);
+        }
+        thermalListener = null;
+        thermalStatus = 0;
+        powerSave = false;
+    }
+
+    private synchronized void onPowerSaveChanged(boolean enabled) {
+        if (config == null || powerSave == enabled) {
+            return;
+        }
+        powerSave = enabled;
+        updateThrottle("powerSave", false);
+    }
+
+    private synchronized void onThermalStatus(int status) {
+        if (config == null || thermalStatus == status) {
+            return;
+        }
+        thermalStatus = status;
+        updateThrottle("thermal", false);
+    }
+
+    private static String thermalStatusName(int status) {
+        return status >= 0 && status < THERMAL_STATUS_NAMES.length ? THERMAL_STATUS_NAMES[status] : String.valueOf(status);
+    }
+}
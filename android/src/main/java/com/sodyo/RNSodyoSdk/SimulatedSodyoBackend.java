@@ -0,0 +1,271 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.app.Activity;
+import android.app.Application;
+
+import com.sodyo.app_sdk.data.SettingsHelper;
+import com.sodyo.sdk.SodyoInitCallback;
+import com.sodyo.sdk.SodyoMarkerContentCallback;
+import com.sodyo.sdk.SodyoModeCallback;
+import com.sodyo.sdk.SodyoScannerCallback;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Backend without SDK or camera: while scanning it calls the registered
+ * callbacks with synthetic markers, to load-test the event pipeline in JVM
+ * tests and on emulators.
+ * <p>
+ * Detections arrive at {@link Config#rateHz} on average, in bursts of
+ * {@link Config#burstSize} back-to-back detections. A detection fails with
+ * probability {@link Config#errorRatio}; a successful one is followed by
+ * marker content with probability {@link Config#contentRatio}, carrying a
+ * payload of about {@link Config#payloadBytes}. Settings calls are accepted
+ * and ignored. Init always succeeds.
+ */
+final class SimulatedSodyoBackend implements SodyoBackend {
+    private static final String TAG = "SimulatedSodyoBackend";
+
+    static final String MARKER_TYPE = "SIMULATED";
+
+    static final class Config {
+        double rateHz = 10;
+        int burstSize = 1;
+        int payloadBytes = 256;
+        double errorRatio = 0;
+        double contentRatio = 1;
+        int markerCount = 16;
+        long seed = 0;
+    }
+
+    private final Config config;
+    private final Random random;
+    private final String payload;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "SodyoSimulator");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private volatile SodyoScannerCallback scannerCallback;
+    private volatile SodyoMarkerContentCallback markerContentCallback;
+    private volatile SodyoModeCallback modeCallback;
+
+    private volatile SettingsHelper.ScannerViewMode mode = SettingsHelper.ScannerViewMode.Normal;
+
+    // Guarded by this
+    @Nullable
+    private ScheduledFuture<?> generator;
+
+    final AtomicLong detections = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong contents = new AtomicLong();
+
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            emitBurst();
+        }
+    };
+
+    SimulatedSodyoBackend(Config config) {
+        this.config = config;
+        this.random = config.seed != 0 ? new Random(config.seed) : new Random();
+
+        StringBuilder builder = new StringBuilder(Math.max(0, config.payloadBytes));
+        for (int i = 0; i < config.payloadBytes; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        this.payload = builder.toString();
+    }
+
+    @Override
+    public void init(Application application, String apiKey, SodyoInitCallback callback) {
+        callback.onSodyoAppLoadSuccess();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public void setCallbacks(SodyoScannerCallback scannerCallback, SodyoMarkerContentCallback markerContentCallback, SodyoModeCallback modeCallback) {
+        this.scannerCallback = scannerCallback;
+        this.markerContentCallback = markerContentCallback;
+        this.modeCallback = modeCallback;
+    }
+
+    @Override
+    public boolean hasScannerUi() {
+        return false;
+    }
+
+    @Override
+    public void openScanner(Activity activity, int requestCode) {
+        startScanning();
+    }
+
+    @Override
+    public void closeScanner(Activity activity, int requestCode) {
+        stopScanning();
+    }
+
+    @Override
+    public void setUserInfo(Map<String, Object> userInfo) {
+    }
+
+    @Override
+    public void setCustomAdLabel(String label) {
+    }
+
+    @Override
+    public void setAppUserId(String userId) {
+    }
+
+    @Override
+    public void setScannerParams(Map<String, String> params) {
+    }
+
+    @Override
+    public void addScannerParam(String key, String value) {
+    }
+
+    @Override
+    public synchronized void startScanning() {
+        if (generator != null || config.rateHz <= 0) {
+            return;
+        }
+
+        long periodMicros = Math.max(1, (long) (config.burstSize * 1e6 / config.rateHz));
+        SodyoLog.i(TAG, "startScanning() - %s Hz in bursts of %s", config.rateHz, config.burstSize);
+        generator = executor.scheduleAtFixedRate(tick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public synchronized void stopScanning() {
+        if (generator != null) {
+            SodyoLog.i(TAG, "stopScanning()");
+            generator.cancel(false);
+            generator = null;
+        }
+    }
+
+    /**
+     * Stops generating for good, for when the backend is replaced.
+     */
+    void shutdown() {
+        stopScanning();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void setDynamicProfile(HashMap<String, Object> profile) {
+    }
+
+    @Override
+    public void setDynamicProfileValue(String key, String value) {
+    }
+
+    @Override
+    public void performMarker(String markerId, Activity activity, Map<String, Object> customProperties) {
+        final String id = markerId;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                emitContent(id);
+            }
+        });
+    }
+
+    @Override
+    public void startTroubleshoot(Activity activity) {
+    }
+
+    @Override
+    public void setMode(Activity activity, SettingsHelper.ScannerViewMode newMode) {
+        SettingsHelper.ScannerViewMode oldMode = mode;
+        mode = newMode;
+
+        SodyoModeCallback callback = modeCallback;
+        if (callback != null && oldMode != newMode) {
+            callback.onModeChange(oldMode, newMode);
+        }
+    }
+
+    @Override
+    public SettingsHelper.ScannerViewMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void setSodyoLogoVisible(boolean isVisible) {
+    }
+
+    /**
+     * One burst of the generator, on the calling thread; benchmarks call it directly.
+     */
+    void emitBurst() {
+        for (int i = 0; i < config.burstSize; i++) {
+            emitMarker();
+        }
+    }
+
+    private void emitMarker() {
+        SodyoScannerCallback callback = scannerCallback;
+        if (callback == null) {
+            return;
+        }
+
+        String markerId = "sim-" + random.nextInt(Math.max(1, config.markerCount));
+        detections.incrementAndGet();
+
+        if (random.nextDouble() < config.errorRatio) {
+            errors.incrementAndGet();
+            callback.onMarkerDetect(MARKER_TYPE, markerId, "simulated detection error");
+            return;
+        }
+
+        callback.onMarkerDetect(MARKER_TYPE, markerId, null);
+        if (random.nextDouble() < config.contentRatio) {
+            emitContent(markerId);
+        }
+    }
+
+    private void emitContent(String markerId) {
+        SodyoMarkerContentCallback callback = markerContentCallback;
+        if (callback == null) {
+            return;
+        }
+
+        JSONObject content = new JSONObject();
+        try {
+            content.put("markerId", markerId);
+            content.put("timestamp", System.currentTimeMillis());
+            content.put("payload", payload);
+        } catch (JSONException e) {
+            SodyoLog.e(TAG, "emitContent(): failed to build content", e);
+            return;
+        }
+
+        contents.incrementAndGet();
+        callback.onMarkerContent(markerId, content);
+    }
+}
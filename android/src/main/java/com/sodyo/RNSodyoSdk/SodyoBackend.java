@@ -0,0 +1,65 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.app.Activity;
+import android.app.Application;
+
+import com.sodyo.app_sdk.data.SettingsHelper;
+import com.sodyo.sdk.SodyoInitCallback;
+import com.sodyo.sdk.SodyoMarkerContentCallback;
+import com.sodyo.sdk.SodyoModeCallback;
+import com.sodyo.sdk.SodyoScannerCallback;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What the bridge needs from the Sodyo SDK. {@link RealSodyoBackend} forwards
+ * to the static {@code com.sodyo.sdk.Sodyo} API; {@link SimulatedSodyoBackend}
+ * generates marker traffic without a camera. The active one is held by
+ * {@link SodyoBackends}.
+ */
+interface SodyoBackend {
+    void init(Application application, String apiKey, SodyoInitCallback callback);
+
+    boolean isInitialized();
+
+    void setCallbacks(SodyoScannerCallback scannerCallback, SodyoMarkerContentCallback markerContentCallback, SodyoModeCallback modeCallback);
+
+    /**
+     * False when there is no SDK scanner UI, i.e. no scanner activity or
+     * fragment; scanner views then only start and stop scanning.
+     */
+    boolean hasScannerUi();
+
+    void openScanner(Activity activity, int requestCode);
+
+    void closeScanner(Activity activity, int requestCode);
+
+    void setUserInfo(Map<String, Object> userInfo);
+
+    void setCustomAdLabel(String label);
+
+    void setAppUserId(String userId);
+
+    void setScannerParams(Map<String, String> params);
+
+    void addScannerParam(String key, String value);
+
+    void startScanning();
+
+    void stopScanning();
+
+    void setDynamicProfile(HashMap<String, Object> profile);
+
+    void setDynamicProfileValue(String key, String value);
+
+    void performMarker(String markerId, Activity activity, Map<String, Object> customProperties);
+
+    void startTroubleshoot(Activity activity);
+
+    void setMode(Activity activity, SettingsHelper.ScannerViewMode mode);
+
+    SettingsHelper.ScannerViewMode getMode();
+
+    void setSodyoLogoVisible(boolean isVisible);
+}
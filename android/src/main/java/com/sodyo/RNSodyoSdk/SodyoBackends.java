@@ -0,0 +1,34 @@
+package com.sodyo.RNSodyoSDK;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the process-wide {@link SodyoBackend}, the real SDK unless a simulated
+ * one was installed for load testing.
+ */
+final class SodyoBackends {
+    private static final SodyoBackend REAL = new RealSodyoBackend();
+
+    private static volatile SodyoBackend current = REAL;
+
+    private SodyoBackends() {
+    }
+
+    static SodyoBackend get() {
+        return current;
+    }
+
+    static boolean isReal() {
+        return current == REAL;
+    }
+
+    /**
+     * Installs backend, or the real SDK when null, and returns the previous one.
+     */
+    static SodyoBackend set(@Nullable SodyoBackend backend) {
+        SodyoBackend previous = current;
+        current = backend != null ? backend : REAL;
+        SodyoInitializer.onBackendChanged();
+        return previous;
+    }
+}
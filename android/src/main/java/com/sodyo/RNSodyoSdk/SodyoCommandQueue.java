@@ -0,0 +1,270 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs SDK calls in submission order on a dedicated thread.
+ * <p>
+ * A command submitted while the last pending command has the same key replaces
+ * it (last writer wins) and both callers are settled when it runs. Only the
+ * tail is merged, so commands never move past each other. A command can also
+ * report itself redundant when it runs, in which case the SDK call is skipped.
+ */
+final class SodyoCommandQueue {
+    private static final String TAG = "SodyoCommandQueue";
+
+    static final String E_COMMAND_FAILED = "E_COMMAND_FAILED";
+
+    abstract static class Command {
+        /** Commands with equal keys merge, a null key never does. */
+        final @Nullable String key;
+
+        Command(@Nullable String key) {
+            this.key = key;
+        }
+
+        /**
+         * Called on the command thread when the command's turn comes, before
+         * {@link #isRedundant()}, whether it then runs or is skipped.
+         */
+        void onTurn() {
+        }
+
+        /**
+         * Called on the command thread right before {@link #run()}.
+         */
+        boolean isRedundant() {
+            return false;
+        }
+
+        /**
+         * Runs on the command thread; throw {@link Rejection} to reject with a specific code.
+         *
+         * @return the value to resolve with, or null for {durationMs, queuedMs}. Commands
+         * returning a value should be unkeyed, a merged value is resolved once per caller.
+         */
+        @Nullable
+        abstract Object run();
+    }
+
+    static final class Rejection extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final String code;
+
+        Rejection(String code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    private static final class Waiter {
+        final @Nullable Promise promise;
+        final long submittedNanos;
+
+        Waiter(@Nullable Promise promise, long submittedNanos) {
+            this.promise = promise;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+
+    private static final class Entry {
+        Command command;
+        final List<Waiter> waiters = new ArrayList<>(1);
+
+        Entry(Command command) {
+            this.command = command;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "SodyoCommands");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // Guarded by this
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private boolean draining;
+    private int maxDepth;
+    private long submitted;
+    private long coalesced;
+    private long executed;
+    private long skipped;
+    private long failed;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            while (true) {
+                Entry entry;
+                synchronized (SodyoCommandQueue.this) {
+                    entry = pending.pollFirst();
+                    if (entry == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                execute(entry);
+            }
+        }
+    };
+
+    /**
+     * @param promise settled when command runs, or null for commands issued natively
+     */
+    void submit(Command command, @Nullable Promise promise) {
+        Waiter waiter = new Waiter(promise, System.nanoTime());
+
+        synchronized (this) {
+            submitted++;
+
+            Entry tail = pending.peekLast();
+            if (tail != null && command.key != null && command.key.equals(tail.command.key)) {
+                SodyoLog.d(TAG, "submit() - merging %s into the pending command", command.key);
+                tail.command = command;
+                tail.waiters.add(waiter);
+                coalesced++;
+                return;
+            }
+
+            Entry entry = new Entry(command);
+            entry.waiters.add(waiter);
+            pending.addLast(entry);
+            maxDepth = Math.max(maxDepth, pending.size());
+
+            if (!draining) {
+                try {
+                    executor.execute(drain);
+                    draining = true;
+                } catch (RejectedExecutionException e) {
+                    pending.removeLast();
+                    if (promise != null) {
+                        promise.reject(E_COMMAND_FAILED, "command queue is shut down");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts command ahead of everything pending, for work that the queued calls
+     * have to land on top of. It is never merged.
+     *
+     * @return false when the queue is shut down and command will not run
+     */
+    boolean submitFirst(Command command) {
+        Entry entry = new Entry(command);
+        entry.waiters.add(new Waiter(null, System.nanoTime()));
+
+        synchronized (this) {
+            submitted++;
+            pending.addFirst(entry);
+            maxDepth = Math.max(maxDepth, pending.size());
+
+            if (!draining) {
+                try {
+                    executor.execute(drain);
+                    draining = true;
+                } catch (RejectedExecutionException e) {
+                    pending.removeFirst();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lets the pending commands run, then stops the thread.
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    synchronized WritableMap getStats() {
+        WritableMap stats = Arguments.createMap();
+        stats.putInt("depth", pending.size());
+        stats.putInt("maxDepth", maxDepth);
+        stats.putDouble("submitted", submitted);
+        stats.putDouble("coalesced", coalesced);
+        stats.putDouble("executed", executed);
+        stats.putDouble("skipped", skipped);
+        stats.putDouble("failed", failed);
+        stats.putDouble("coalescingRatio", submitted > 0 ? (double) coalesced / submitted : 0);
+        return stats;
+    }
+
+    private void execute(Entry entry) {
+        Command command = entry.command;
+        Object result = null;
+        Rejection rejection = null;
+        RuntimeException error = null;
+
+        long started = System.nanoTime();
+        command.onTurn();
+        boolean redundant = command.isRedundant();
+        if (redundant) {
+            SodyoLog.d(TAG, "execute() - %s is already applied, skipping", command.key);
+        } else {
+            boolean traced = command.key != null
+                ? SodyoTrace.begin("SodyoCommandQueue.execute", command.key)
+                : SodyoTrace.begin("SodyoCommandQueue.execute");
+            try {
+                result = command.run();
+            } catch (Rejection e) {
+                rejection = e;
+            } catch (RuntimeException e) {
+                SodyoLog.e(TAG, "execute(): command %s failed", command.key, e);
+                error = e;
+            } finally {
+                SodyoTrace.end(traced);
+            }
+        }
+
+        synchronized (this) {
+            if (redundant) {
+                skipped++;
+            } else if (rejection != null || error != null) {
+                failed++;
+            } else {
+                executed++;
+            }
+        }
+
+        // durationMs is the SDK call alone, like for calls made outside the queue
+        double durationMs = redundant ? 0 : (System.nanoTime() - started) / 1e6;
+        for (Waiter waiter : entry.waiters) {
+            if (waiter.promise == null) {
+                continue;
+            }
+            if (rejection != null) {
+                waiter.promise.reject(rejection.code, rejection.getMessage());
+            } else if (error != null) {
+                waiter.promise.reject(E_COMMAND_FAILED, error);
+            } else if (result != null) {
+                waiter.promise.resolve(result);
+            } else {
+                WritableMap timing = Arguments.createMap();
+                timing.putDouble("durationMs", durationMs);
+                timing.putDouble("queuedMs", Math.max(0, started - waiter.submittedNanos) / 1e6);
+                waiter.promise.resolve(timing);
+            }
+        }
+    }
+}
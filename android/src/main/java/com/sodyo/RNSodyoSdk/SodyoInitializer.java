@@ -0,0 +1,269 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.app.Application;
+
+import com.facebook.react.bridge.UiThreadUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+
+import com.sodyo.sdk.SodyoInitCallback;
+
+/**
+ * Process-wide init state of the Sodyo SDK.
+ * <p>
+ * Only the caller that moves the state from IDLE (or FAILED) to INITIALIZING
+ * posts {@code Sodyo.init}; anyone calling while it is in flight is queued and
+ * resolved with the same outcome. Lives outside the module so the init can be
+ * started from {@code Application.onCreate}, see {@link RNSodyoSdkPackage#preInit}.
+ */
+final class SodyoInitializer {
+    private static final String TAG = "SodyoInitializer";
+
+    enum State {
+        IDLE,
+        INITIALIZING,
+        READY,
+        FAILED
+    }
+
+    interface InitListener {
+        void onReady();
+
+        void onFailed(String error);
+    }
+
+    interface ErrorListener {
+        void onSodyoError(Error err);
+    }
+
+    private static final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
+
+    // Guarded by itself; only touched while the state is INITIALIZING
+    private static final List<InitListener> waiters = new ArrayList<>();
+
+    private static volatile String lastError;
+
+    private static volatile String apiKey;
+
+    private static volatile ErrorListener errorListener;
+
+    // The queue the module runs SDK calls on, null while no module is up
+    private static volatile SodyoCommandQueue commandQueue;
+
+    private static volatile long initStartNanos;
+
+    // Of the init that made the SDK ready, 0 if it was initialized outside of us
+    private static volatile double initDurationMs;
+
+    private static final SodyoInitCallback initCallback = new SodyoInitCallback() {
+        @Override
+        public void onSodyoAppLoadSuccess() {
+            SodyoLog.i(TAG, "onSodyoAppLoadSuccess");
+            complete(State.READY, null);
+        }
+
+        @Override
+        public void onSodyoAppLoadFailed(String error) {
+            SodyoLog.e(TAG, "onSodyoAppLoadFailed - error: %s", error);
+            complete(State.FAILED, error);
+        }
+
+        @Override
+        public void sodyoError(Error err) {
+            SodyoLog.e(TAG, "sodyoError - error: %s, message: %s", err, (err != null ? err.getMessage() : "null"));
+
+            ErrorListener listener = errorListener;
+            if (listener != null) {
+                listener.onSodyoError(err);
+            }
+        }
+    };
+
+    private SodyoInitializer() {
+    }
+
+    static State getState() {
+        State current = state.get();
+        // The SDK may have been initialized natively by the host app. An init of
+        // our own is left alone, complete() still has to notify its waiters.
+        if ((current == State.IDLE || current == State.FAILED) && SodyoBackends.get().isInitialized()
+                && state.compareAndSet(current, State.READY)) {
+            return State.READY;
+        }
+        return state.get();
+    }
+
+    /**
+     * Re-derives the state from a newly installed backend. An init in flight
+     * is left to complete.
+     */
+    static void onBackendChanged() {
+        State current = state.get();
+        if (current != State.INITIALIZING) {
+            State next = SodyoBackends.get().isInitialized() ? State.READY : State.IDLE;
+            if (state.compareAndSet(current, next)) {
+                lastError = null;
+                initDurationMs = 0;
+                SodyoLog.i(TAG, "onBackendChanged(): %s -> %s", current, next);
+            }
+        }
+    }
+
+    @Nullable
+    static String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * How long the SDK init that made it ready took, from posting {@code Sodyo.init}
+     * to its success callback. 0 if the SDK was initialized by the host app.
+     */
+    static double getInitDurationMs() {
+        return initDurationMs;
+    }
+
+    static synchronized void setErrorListener(ErrorListener listener) {
+        errorListener = listener;
+    }
+
+    /**
+     * Clears the error listener unless another module instance (e.g. after a
+     * reload) has replaced it in the meantime.
+     */
+    static synchronized void removeErrorListener(ErrorListener listener) {
+        if (errorListener == listener) {
+            errorListener = null;
+        }
+    }
+
+    static synchronized void setCommandQueue(SodyoCommandQueue queue) {
+        commandQueue = queue;
+    }
+
+    /**
+     * Clears the command queue unless another module instance has replaced it in the meantime.
+     */
+    static synchronized void removeCommandQueue(SodyoCommandQueue queue) {
+        if (commandQueue == queue) {
+            commandQueue = null;
+        }
+    }
+
+    /**
+     * Starts the SDK init unless it is already running or done. The listener, if
+     * any, is called exactly once with the outcome, possibly synchronously.
+     */
+    static void init(final Application application, final String key, @Nullable InitListener listener) {
+        State current;
+
+        synchronized (waiters) {
+            current = getState();
+
+            if (current == State.INITIALIZING) {
+                if (key != null && !key.equals(apiKey)) {
+                    SodyoLog.w(TAG, "init(): already initializing with a different apiKey, joining the pending init");
+                }
+                if (listener != null) {
+                    waiters.add(listener);
+                }
+                return;
+            }
+
+            if (current != State.READY) {
+                if (!state.compareAndSet(current, State.INITIALIZING)) {
+                    // Unreachable while holding the lock, transitions out of INITIALIZING also take it
+                    throw new IllegalStateException("init state changed concurrently: " + state.get());
+                }
+                apiKey = key;
+                lastError = null;
+                ConfigSnapshotStore.setDirectory(application.getFilesDir());
+                initStartNanos = System.nanoTime();
+                if (listener != null) {
+                    waiters.add(listener);
+                }
+            }
+        }
+
+        if (current == State.READY) {
+            SodyoLog.i(TAG, "init(): already initialized");
+            if (listener != null) {
+                listener.onReady();
+            }
+            return;
+        }
+
+        SodyoLog.i(TAG, "init(): %s -> INITIALIZING", current);
+
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    SodyoBackends.get().init(application, key, initCallback);
+                } catch (RuntimeException e) {
+                    SodyoLog.e(TAG, "init(): backend init threw", e);
+                    complete(State.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+                }
+            }
+        });
+    }
+
+    private static void complete(State outcome, @Nullable String error) {
+        List<InitListener> pending;
+
+        synchronized (waiters) {
+            // The SDK may report more than once; only the first outcome counts
+            if (!state.compareAndSet(State.INITIALIZING, outcome)) {
+                SodyoLog.w(TAG, "complete(): ignoring %s, state is %s", outcome, state.get());
+                return;
+            }
+            lastError = error;
+            if (outcome == State.READY) {
+                long initNanos = System.nanoTime() - initStartNanos;
+                SodyoMetrics.initDuration.recordNanos(initNanos);
+                initDurationMs = initNanos / 1e6;
+            }
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+
+        if (outcome != State.READY) {
+            notifyWaiters(pending, outcome, error);
+            return;
+        }
+
+        // The snapshot is restored ahead of every SDK call JS has queued, and
+        // before anyone hears about READY, so JS updates land on top of it
+        final List<InitListener> ready = pending;
+        SodyoCommandQueue queue = commandQueue;
+        boolean queued = queue != null && queue.submitFirst(new SodyoCommandQueue.Command(null) {
+            @Override
+            Object run() {
+                ConfigSnapshotStore.restore(SodyoBackends.get());
+                notifyWaiters(ready, State.READY, null);
+                return null;
+            }
+        });
+
+        if (!queued) {
+            // No module yet (native preInit), so nothing else calls the SDK
+            ConfigSnapshotStore.restore(SodyoBackends.get());
+            notifyWaiters(ready, State.READY, null);
+        }
+    }
+
+    private static void notifyWaiters(List<InitListener> pending, State outcome, @Nullable String error) {
+        SodyoLog.i(TAG, "init(): INITIALIZING -> %s, notifying %s waiter(s)", outcome, pending.size());
+
+        for (InitListener listener : pending) {
+            if (outcome == State.READY) {
+                listener.onReady();
+            } else {
+                listener.onFailed(error);
+            }
+        }
+    }
+}
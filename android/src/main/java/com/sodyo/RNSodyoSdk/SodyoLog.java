@@ -0,0 +1,279 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+/**
+ * Leveled logging facade for the bridge.
+ * <p>
+ * Messages are passed as a format string plus arguments and only formatted when
+ * the level is enabled, so disabled levels cost one volatile read: no string
+ * building, no varargs array and no toString() on the arguments.
+ * Use the fixed-arity overloads on hot paths. The primitive overloads box their
+ * arguments only once the level is enabled, so callers need no
+ * {@link #isLoggable(int)} guard around them.
+ */
+public final class SodyoLog {
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+    public static final int NONE = Integer.MAX_VALUE;
+
+    private static volatile int level = WARN;
+
+    private SodyoLog() {
+    }
+
+    /**
+     * Picks the default level from the host app: debug builds log everything from
+     * DEBUG up, release builds only warnings and errors.
+     */
+    static void initDefaultLevel(Context context) {
+        ApplicationInfo info = context.getApplicationInfo();
+        boolean debuggable = info != null && (info.flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        level = debuggable ? DEBUG : WARN;
+    }
+
+    public static void setLevel(int newLevel) {
+        level = newLevel;
+    }
+
+    public static int getLevel() {
+        return level;
+    }
+
+    /**
+     * Parses a level name as passed from JS (VERBOSE/DEBUG/INFO/WARN/ERROR/NONE).
+     *
+     * @return the level, or -1 when the name is unknown
+     */
+    static int parseLevel(String name) {
+        if (name == null) {
+            return -1;
+        }
+
+        switch (name.trim().toUpperCase()) {
+            case "VERBOSE":
+                return VERBOSE;
+            case "DEBUG":
+                return DEBUG;
+            case "INFO":
+                return INFO;
+            case "WARN":
+                return WARN;
+            case "ERROR":
+                return ERROR;
+            case "NONE":
+                return NONE;
+            default:
+                return -1;
+        }
+    }
+
+    public static boolean isLoggable(int priority) {
+        return priority >= level;
+    }
+
+    public static void d(String tag, String msg) {
+        if (DEBUG >= level) Log.d(tag, msg);
+    }
+
+    public static void d(String tag, String format, Object a1) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1));
+    }
+
+    public static void d(String tag, String format, Object a1, Object a2) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2));
+    }
+
+    public static void d(String tag, String format, Object a1, Object a2, Object a3) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void d(String tag, String format, long a1) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1));
+    }
+
+    public static void d(String tag, String format, double a1) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1));
+    }
+
+    public static void d(String tag, String format, boolean a1) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1));
+    }
+
+    public static void d(String tag, String format, Object a1, long a2) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2));
+    }
+
+    public static void d(String tag, String format, Object a1, boolean a2) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2));
+    }
+
+    public static void d(String tag, String format, long a1, long a2) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2));
+    }
+
+    public static void d(String tag, String format, double a1, long a2) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2));
+    }
+
+    public static void d(String tag, String format, Object a1, Object a2, boolean a3) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void d(String tag, String format, Object a1, boolean a2, boolean a3) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void d(String tag, String format, double a1, double a2, boolean a3) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void d(String tag, String format, long a1, Object a2, boolean a3) {
+        if (DEBUG >= level) Log.d(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void i(String tag, String msg) {
+        if (INFO >= level) Log.i(tag, msg);
+    }
+
+    public static void i(String tag, String format, Object a1) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1));
+    }
+
+    public static void i(String tag, String format, Object a1, Object a2) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2));
+    }
+
+    public static void i(String tag, String format, Object a1, Object a2, Object a3) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void i(String tag, String format, long a1) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1));
+    }
+
+    public static void i(String tag, String format, double a1) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1));
+    }
+
+    public static void i(String tag, String format, boolean a1) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1));
+    }
+
+    public static void i(String tag, String format, Object a1, long a2) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2));
+    }
+
+    public static void i(String tag, String format, Object a1, boolean a2) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2));
+    }
+
+    public static void i(String tag, String format, long a1, long a2) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2));
+    }
+
+    public static void i(String tag, String format, double a1, long a2) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2));
+    }
+
+    public static void i(String tag, String format, Object a1, Object a2, boolean a3) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void i(String tag, String format, Object a1, boolean a2, boolean a3) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void i(String tag, String format, double a1, double a2, boolean a3) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void i(String tag, String format, long a1, Object a2, boolean a3) {
+        if (INFO >= level) Log.i(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void w(String tag, String msg) {
+        if (WARN >= level) Log.w(tag, msg);
+    }
+
+    public static void w(String tag, String format, Object a1) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1));
+    }
+
+    public static void w(String tag, String format, Object a1, Object a2) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2));
+    }
+
+    public static void w(String tag, String format, long a1) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1));
+    }
+
+    public static void w(String tag, String format, double a1) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1));
+    }
+
+    public static void w(String tag, String format, boolean a1) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1));
+    }
+
+    public static void w(String tag, String format, Object a1, long a2) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2));
+    }
+
+    public static void w(String tag, String format, Object a1, boolean a2) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2));
+    }
+
+    public static void w(String tag, String format, long a1, long a2) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2));
+    }
+
+    public static void w(String tag, String format, double a1, long a2) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2));
+    }
+
+    public static void w(String tag, String format, Object a1, Object a2, boolean a3) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void w(String tag, String format, Object a1, boolean a2, boolean a3) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void w(String tag, String format, double a1, double a2, boolean a3) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void w(String tag, String format, long a1, Object a2, boolean a3) {
+        if (WARN >= level) Log.w(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void e(String tag, String msg) {
+        if (ERROR >= level) Log.e(tag, msg);
+    }
+
+    public static void e(String tag, String msg, Throwable tr) {
+        if (ERROR >= level) Log.e(tag, msg, tr);
+    }
+
+    public static void e(String tag, String format, Object a1) {
+        if (ERROR >= level) Log.e(tag, String.format(format, a1));
+    }
+
+    public static void e(String tag, String format, Object a1, Object a2) {
+        if (ERROR >= level) Log.e(tag, String.format(format, a1, a2));
+    }
+
+    public static void e(String tag, String format, Object a1, Object a2, Object a3) {
+        if (ERROR >= level) Log.e(tag, String.format(format, a1, a2, a3));
+    }
+
+    public static void e(String tag, String format, Object a1, Throwable tr) {
+        if (ERROR >= level) Log.e(tag, String.format(format, a1), tr);
+    }
+}
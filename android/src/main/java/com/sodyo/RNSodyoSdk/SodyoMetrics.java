@@ -0,0 +1,102 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counters and latency histograms for the scan pipeline:
+ * SDK init, scanner start to first detection, detection to marker content,
+ * event dispatch to JS, camera start/stop and time to the first layout of the
+ * scanner (with a pooled fragment or a new one) in the scanner view.
+ * Shared by the module and the view manager, all members are thread-safe.
+ */
+final class SodyoMetrics {
+    static final LatencyHistogram initDuration = new LatencyHistogram();
+    static final LatencyHistogram startToFirstDetect = new LatencyHistogram();
+    static final LatencyHistogram detectToContent = new LatencyHistogram();
+    static final LatencyHistogram sendEventDispatch = new LatencyHistogram();
+    static final LatencyHistogram cameraStart = new LatencyHistogram();
+    static final LatencyHistogram cameraStop = new LatencyHistogram();
+    static final LatencyHistogram firstLayoutWarm = new LatencyHistogram();
+    static final LatencyHistogram firstLayoutCold = new LatencyHistogram();
+
+    static final AtomicLong eventsSent = new AtomicLong();
+    static final AtomicLong eventsDropped = new AtomicLong();
+
+    // System.nanoTime() of the pending start / last detection, 0 when there is none
+    private static final AtomicLong scanStartNanos = new AtomicLong();
+    private static final AtomicLong lastDetectNanos = new AtomicLong();
+
+    private SodyoMetrics() {
+    }
+
+    /**
+     * Marks the start of a scan session, the next detection closes the interval.
+     */
+    static void onScanStart() {
+        scanStartNanos.set(System.nanoTime());
+    }
+
+    static void onMarkerDetect() {
+        long now = System.nanoTime();
+        long start = scanStartNanos.getAndSet(0);
+        if (start != 0) {
+            startToFirstDetect.recordNanos(now - start);
+        }
+        lastDetectNanos.set(now);
+    }
+
+    static void onMarkerContent() {
+        long detectedAt = lastDetectNanos.getAndSet(0);
+        if (detectedAt != 0) {
+            detectToContent.recordSince(detectedAt);
+        }
+    }
+
+    static WritableMap toWritableMap() {
+        WritableMap latencies = Arguments.createMap();
+        latencies.putMap("init", toWritableMap(initDuration));
+        latencies.putMap("startToFirstDetect", toWritableMap(startToFirstDetect));
+        latencies.putMap("detectToContent", toWritableMap(detectToContent));
+        latencies.putMap("sendEvent", toWritableMap(sendEventDispatch));
+        latencies.putMap("cameraStart", toWritableMap(cameraStart));
+        latencies.putMap("cameraStop", toWritableMap(cameraStop));
+        latencies.putMap("firstLayoutWarm", toWritableMap(firstLayoutWarm));
+        latencies.putMap("firstLayoutCold", toWritableMap(firstLayoutCold));
+
+        WritableMap counters = Arguments.createMap();
+        counters.putDouble("eventsSent", eventsSent.get());
+        counters.putDouble("eventsDropped", eventsDropped.get());
+
+        WritableMap metrics = Arguments.createMap();
+        metrics.putMap("latencies", latencies);
+        metrics.putMap("counters", counters);
+        return metrics;
+    }
+
+    static void reset() {
+        initDuration.reset();
+        startToFirstDetect.reset();
+        detectToContent.reset();
+        sendEventDispatch.reset();
+        cameraStart.reset();
+        cameraStop.reset();
+        firstLayoutWarm.reset();
+        firstLayoutCold.reset();
+        eventsSent.set(0);
+        eventsDropped.set(0);
+    }
+
+    static WritableMap toWritableMap(LatencyHistogram histogram) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("count", histogram.getCount());
+        map.putDouble("meanMs", histogram.getMeanMs());
+        map.putDouble("p50Ms", histogram.getPercentileMs(0.5));
+        map.putDouble("p90Ms", histogram.getPercentileMs(0.9));
+        map.putDouble("p99Ms", histogram.getPercentileMs(0.99));
+        map.putDouble("maxMs", histogram.getMaxMs());
+        return map;
+    }
+}
@@ -0,0 +1,231 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * android.os.Trace sections for the bridge, visible in Perfetto and systrace
+ * under the app's own track when the capture includes the app.
+ * <p>
+ * Sections wrap the module methods, the SDK callbacks, event dispatch, the
+ * ReadableMap/JSON conversions and the scanner view's fragment and camera
+ * work. A scan also gets a flow: a "SodyoScan" async slice from the detection
+ * until its content was dispatched to JS, and the id of that slice in the
+ * names of the sections handling it, so one scan can be followed across
+ * threads. Off by default; while off every call costs one volatile read and
+ * allocates nothing. Needs API 18, flow slices API 29.
+ * <p>
+ * Sections must be closed on the thread that opened them, on every path out:
+ * <pre>
+ * boolean traced = SodyoTrace.begin("RNSodyoSdk.start");
+ * ...
+ * SodyoTrace.end(traced);
+ * </pre>
+ * Code that is expected to throw closes it in a finally block. Elsewhere a
+ * section left open by an exception only shows up as an overlong slice in the
+ * capture, the bridge treats an exception from a module method as fatal.
+ */
+public final class SodyoTrace {
+    private static final String TAG = "SodyoTrace";
+
+    private static final String FLOW_SECTION = "SodyoScan";
+
+    // Flows of scans whose content never arrives are ended once this many are open
+    private static final int MAX_OPEN_FLOWS = 64;
+
+    private static volatile boolean enabled;
+
+    // Guarded by SodyoTrace.class
+    private static int nextFlow = 1;
+    // Flows waiting for their content, oldest first, with the marker id they were opened for
+    private static final LinkedHashMap<Integer, String> openFlows = new LinkedHashMap<Integer, String>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            if (size() <= MAX_OPEN_FLOWS) {
+                return false;
+            }
+            endAsync(eldest.getKey());
+            return true;
+        }
+    };
+
+    private SodyoTrace() {
+    }
+
+    /**
+     * Turns tracing on or off, any thread. Flows still open are ended when turning it off.
+     */
+    public static void setEnabled(boolean on) {
+        if (on && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            SodyoLog.w(TAG, "setEnabled(): android.os.Trace needs API 18, tracing stays off");
+            return;
+        }
+
+        SodyoLog.i(TAG, "setEnabled() - %s", on);
+        synchronized (SodyoTrace.class) {
+            enabled = on;
+            if (!on) {
+                for (Iterator<Integer> it = openFlows.keySet().iterator(); it.hasNext(); ) {
+                    endAsync(it.next());
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens a section named name, at most 127 characters.
+     *
+     * @return whether a section was opened, to be passed to {@link #end(boolean)}
+     */
+    public static boolean begin(String name) {
+        if (!enabled) {
+            return false;
+        }
+        Trace.beginSection(name);
+        return true;
+    }
+
+    /**
+     * Opens a section named name followed by detail. The name is only built
+     * while a trace is being captured.
+     */
+    static boolean begin(String name, String detail) {
+        if (!enabled) {
+            return false;
+        }
+        Trace.beginSection(capturing() ? truncate(name + " " + detail) : name);
+        return true;
+    }
+
+    /**
+     * Opens a section named name, tagged with flow unless it is 0.
+     */
+    static boolean begin(String name, int flow) {
+        if (!enabled) {
+            return false;
+        }
+        Trace.beginSection(flow != 0 && capturing() ? name + " [flow " + flow + "]" : name);
+        return true;
+    }
+
+    /**
+     * Opens a section named name followed by detail, tagged with flow unless it is 0.
+     */
+    static boolean begin(String name, String detail, int flow) {
+        if (!enabled) {
+            return false;
+        }
+        if (!capturing()) {
+            Trace.beginSection(name);
+        } else {
+            Trace.beginSection(truncate(flow != 0 ? name + " " + detail + " [flow " + flow + "]" : name + " " + detail));
+        }
+        return true;
+    }
+
+    /**
+     * Closes the section opened by the matching begin call, if it opened one.
+     */
+    public static void end(boolean traced) {
+        if (traced) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Opens the flow of a scan, for a detection or content requested by id.
+     *
+     * @param markerId what the scan is for, the content callback prefers the flow with its markerId
+     * @return the flow id, or 0 when tracing is off
+     */
+    static int beginFlow(String markerId) {
+        if (!enabled) {
+            return 0;
+        }
+
+        synchronized (SodyoTrace.class) {
+            if (!enabled) {
+                return 0;
+            }
+
+            int flow = nextFlow++;
+            if (nextFlow <= 0) {
+                nextFlow = 1;
+            }
+            openFlows.put(flow, markerId);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(FLOW_SECTION, flow);
+            }
+            return flow;
+        }
+    }
+
+    /**
+     * Takes the open flow that content for markerId belongs to: the oldest
+     * one opened for markerId, else the oldest one, since the SDK delivers
+     * content in detection order and detections need not carry the marker id.
+     * The flow stays open until {@link #endFlow(int)}.
+     *
+     * @return the flow id, or 0 when there is none
+     */
+    static int claimFlow(String markerId) {
+        if (!enabled) {
+            return 0;
+        }
+
+        synchronized (SodyoTrace.class) {
+            Integer claimed = null;
+            for (Map.Entry<Integer, String> entry : openFlows.entrySet()) {
+                if (claimed == null) {
+                    claimed = entry.getKey();
+                }
+                if (entry.getValue() != null && entry.getValue().equals(markerId)) {
+                    claimed = entry.getKey();
+                    break;
+                }
+            }
+            if (claimed == null) {
+                return 0;
+            }
+            openFlows.remove(claimed);
+            return claimed;
+        }
+    }
+
+    /**
+     * Ends a claimed flow once its content was handed to JS, or dropped. No-op for 0.
+     */
+    static void endFlow(int flow) {
+        if (flow != 0) {
+            endAsync(flow);
+        }
+    }
+
+    private static void endAsync(int flow) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(FLOW_SECTION, flow);
+        }
+    }
+
+    /**
+     * Whether sections are being recorded right now, which is only known from API 29;
+     * before that names are built whenever tracing is on.
+     */
+    private static boolean capturing() {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || Trace.isEnabled();
+    }
+
+    // Trace.beginSection throws for names longer than 127 characters
+    private static String truncate(String name) {
+        return name.length() <= 127 ? name : name.substring(0, 127);
+    }
+}
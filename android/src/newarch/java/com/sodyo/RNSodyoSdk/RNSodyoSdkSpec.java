@@ -0,0 +1,13 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+/**
+ * New architecture base of {@link RNSodyoSdkModule}: the TurboModule spec
+ * generated by codegen from specs/NativeRNSodyoSdk.js.
+ */
+abstract class RNSodyoSdkSpec extends NativeRNSodyoSdkSpec {
+    RNSodyoSdkSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,29 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.view.View;
+
+import com.facebook.react.uimanager.SimpleViewManager;
+import com.facebook.react.uimanager.ViewManagerDelegate;
+import com.facebook.react.viewmanagers.RNSodyoSdkViewManagerDelegate;
+import com.facebook.react.viewmanagers.RNSodyoSdkViewManagerInterface;
+
+import javax.annotation.Nullable;
+
+/**
+ * New architecture base of {@link RNSodyoSdkView}: Fabric props go through the
+ * delegate generated from specs/RNSodyoSdkViewNativeComponent.js.
+ */
+abstract class RNSodyoSdkViewManagerSpec<T extends View> extends SimpleViewManager<T> implements RNSodyoSdkViewManagerInterface<T> {
+    private final ViewManagerDelegate<T> mDelegate;
+
+    @SuppressWarnings("unchecked")
+    RNSodyoSdkViewManagerSpec() {
+        mDelegate = new RNSodyoSdkViewManagerDelegate(this);
+    }
+
+    @Nullable
+    @Override
+    protected ViewManagerDelegate<T> getDelegate() {
+        return mDelegate;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sodyo.RNSodyoSDK;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+/**
+ * Old architecture base of {@link RNSodyoSdkModule}: a plain bridge module.
+ */
+abstract class RNSodyoSdkSpec extends ReactContextBaseJavaModule {
+    RNSodyoSdkSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sodyo.RNSodyoSDK;
+
+import android.view.View;
+
+import com.facebook.react.uimanager.SimpleViewManager;
+
+/**
+ * Old architecture base of {@link RNSodyoSdkView}: props are set through
+ * {@link com.facebook.react.uimanager.annotations.ReactProp} reflection.
+ */
+abstract class RNSodyoSdkViewManagerSpec<T extends View> extends SimpleViewManager<T> {
+    public abstract void setIsEnabled(T view, boolean isEnabled);
+
+    public abstract void setIsTroubleShootingEnabled(T view, boolean isTroubleShootingEnabled);
+
+    public abstract void setCameraToggleDebounceMs(T view, int cameraToggleDebounceMs);
+
+    public abstract void setDirectEvents(T view, boolean directEvents);
+
+    public abstract void setFrameTelemetryIntervalMs(T view, int frameTelemetryIntervalMs);
+}
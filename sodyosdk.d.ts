@@ -2,37 +2,85 @@ import * as React from 'react'
 
 type TEnv = 'DEV' | 'QA' | 'PROD';
 
+type TInitState = 'idle' | 'initializing' | 'ready' | 'failed';
+
+type TLogLevel = 'VERBOSE' | 'DEBUG' | 'INFO' | 'WARN' | 'ERROR' | 'NONE';
+
 declare const _default: {
-  init (apiKey: string, successCallback?: () => void, errorCallback?: (msg: string) => void, env?: TEnv): void
+  init (apiKey: string, successCallback?: () => void, errorCallback?: (msg: string) => void, env?: TEnv): Promise<IOperationResult | null>
+  setTimeouts (timeouts: ICallTimeouts): void
   onError (callback: (err: string) => void): () => void,
   onCloseScanner (callback: () => void): () => void,
   onCloseContent (callback: () => void): () => void,
-  startScanning (): void
-  stopScanning (): void
-  start (successCallback?: (immediateData?: string) => void, errorCallback?: (msg: string) => void): void
-  close (): void
-  setUserInfo (userInfo: { [key: string]: string | number }): void
-  setScannerParams (scannerPreferences: { [key: string]: string }): void
-  addScannerParam (key: string, value: string): void
-  setDynamicProfile (profile: { [key: string]: any }): void,
-  setDynamicProfileValue (key: string, value: string): void
-  setCustomAdLabel (label: string): void
-  setAppUserId (appUserId: string): void
+  startScanning (): Promise<IOperationResult | null>
+  stopScanning (): Promise<IOperationResult | null>
+  start (successCallback?: (immediateData?: string) => void, errorCallback?: (msg: string) => void): Promise<IOperationResult | null>
+  close (): Promise<IOperationResult | null>
+  setUserInfo (userInfo: { [key: string]: string | number }): Promise<IOperationResult | null>
+  setScannerParams (scannerPreferences: { [key: string]: string }): Promise<IOperationResult | null>
+  addScannerParam (key: string, value: string): Promise<IOperationResult | null>
+  setDynamicProfile (profile: { [key: string]: any }): Promise<IOperationResult | null>,
+  setDynamicProfileValue (key: string, value: string): Promise<IOperationResult | null>
+  setCustomAdLabel (label: string): Promise<IOperationResult | null>
+  setAppUserId (appUserId: string): Promise<IOperationResult | null>
   removeAllListeners (eventType?: string): void
-  onMarkerContent (callback: (markerId: string, data: { [key: string]: any }) => void): () => void,
+  onMarkerContent (callback: (markerId: string, data: { [key: string]: any } | null) => void): () => void,
   onModeChange (callback: (data: ISodyoMode) => void): () => void,
-  performMarker (markerId: string, customProperties: { [key: string]: any }): void,
-  startTroubleshoot (): void,
-  setSodyoLogoVisible (isVisible: boolean): void,
-  setTroubleshootMode (): void,
-  setNormalMode (): void,
+  performMarker (markerId: string, customProperties: { [key: string]: any }): Promise<IOperationResult | null>,
+  startTroubleshoot (): Promise<IOperationResult | null>,
+  setSodyoLogoVisible (isVisible: boolean): Promise<IOperationResult | null>,
+  setTroubleshootMode (): Promise<IOperationResult | null>,
+  setNormalMode (): Promise<IOperationResult | null>,
   getMode (): EScannerViewMode,
-  setEnv(env: TEnv): void,
+  setEnv(env: TEnv): Promise<IOperationResult | null>,
+  setMarkerDetectBatching (options: IMarkerDetectBatchingOptions | null): void,
+  onMarkerDetectBatch (callback: (items: IMarkerDetection[], dropped: number) => void): () => void,
+  setLogLevel (level: TLogLevel): void,
+  setTracingEnabled (enabled: boolean): void,
+  addMarkerFilter (options: IMarkerFilterOptions): Promise<string | null>,
+  removeMarkerFilter (id: string): void,
+  clearMarkerFilters (): void,
+  getMarkerFilterStats (): Promise<IMarkerFilterStats | null>,
+  setScanJournal (options: IScanJournalOptions | null): void,
+  queryScanJournal (query?: IScanJournalQuery): Promise<IScanJournalRecord[]>,
+  clearScanJournal (): void,
+  getCommandQueueStats (): Promise<ICommandQueueStats | null>,
+  getConfigUpdateStats (): Promise<IConfigUpdateStats | null>,
+  setConfigSnapshot (options: IConfigSnapshotOptions | null): void,
+  getConfigSnapshotInfo (): Promise<IConfigSnapshotInfo | null>,
+  applyConfiguration (configuration: ISodyoConfiguration): Promise<IApplyConfigurationResult>,
+  setStructuredMarkerContent (enabled: boolean): void,
+  setMarkerContentCache (options: IMarkerContentCacheOptions | null): void,
+  getCachedMarkerContent (markerId: string): Promise<{ [key: string]: any } | null>,
+  prefetchMarkerContent (markerId: string, content: { [key: string]: any }): void,
+  getMarkerContentCacheStats (): Promise<IMarkerContentCacheStats | null>,
+  getInitState (): Promise<IInitState | null>,
+  setSimulatedBackend (options: ISimulatedBackendOptions | null): void,
+  getBackendInfo (): Promise<IBackendInfo | null>,
+  getMetrics (): Promise<ISodyoMetrics | null>,
+  getFrameStats (): Promise<IFrameStats | null>,
+  resetMetrics (): void,
+  setPendingEventQueue (options: IPendingEventQueueOptions | null): void,
+  getPendingEventStats (): Promise<IPendingEventStats | null>,
+  setScannerPooling (options: IScannerPoolingOptions | null): void,
+  setScanningGovernor (options: IScanningGovernorOptions | null): void,
+  resumeScanning (): void,
+  getScanningGovernorState (): Promise<IScanningGovernorState | null>,
+  onScanningGovernorChange (callback: (event: IScanningGovernorEvent) => void): () => void,
+  onMetrics (callback: (metrics: ISodyoMetrics) => void, intervalMs?: number): () => void,
 }
 
 interface IScannerProps {
   isEnabled?: boolean
   isTroubleShootingEnabled?: boolean
+  cameraToggleDebounceMs?: number
+  frameTelemetryIntervalMs?: number
+  onScannerReady?: (event: IScannerReadyEvent) => void
+  onFrameStats?: (stats: IFrameStats) => void
+  onMarkerDetect?: (data: string) => void
+  onMarkerContent?: (markerId: string, data: { [key: string]: any } | null) => void
+  onModeChange?: (data: ISodyoMode) => void
+  onError?: (error: string, source: 'sdk' | 'detect') => void
 }
 
 export declare class Scanner extends React.PureComponent<IScannerProps> {
@@ -42,6 +90,10 @@ export declare const SODYO_ENV: {
   [key in TEnv]: TEnv
 }
 
+export declare const LOG_LEVEL: {
+  [key in TLogLevel]: TLogLevel
+}
+
 export enum EScannerViewMode {
   NORMAL = 'Normal',
   TROUBLESHOOT = 'Troubleshoot',
@@ -53,4 +105,256 @@ export interface ISodyoMode {
   oldMode: EScannerViewMode,
 }
 
+export interface IMarkerDetectBatchingOptions {
+  enabled?: boolean
+  maxBatchSize?: number
+  flushIntervalMs?: number
+  maxQueueSize?: number
+}
+
+export interface IMarkerDetection {
+  data: string
+  timestamp: number
+}
+
+export interface IMarkerContentCacheOptions {
+  enabled?: boolean
+  maxEntries?: number
+  maxBytes?: number
+  ttlMs?: number
+}
+
+export interface IMarkerContentCacheStats {
+  hits: number
+  misses: number
+  evictions: number
+  entries: number
+  bytes: number
+}
+
+export interface IMarkerFilterOptions {
+  id?: string
+  idPrefixes?: string[]
+  idPattern?: string
+  markerTypes?: string[]
+  suppressWindowMs?: number
+  events?: Array<'detect' | 'content'>
+}
+
+export interface IMarkerFilterStats {
+  filters: { [id: string]: { matched: number, suppressed: number } }
+  rejected: number
+}
+
+export interface IScanJournalOptions {
+  enabled?: boolean
+  maxSegmentBytes?: number
+  maxSegments?: number
+}
+
+export interface IScanJournalQuery {
+  fromMs?: number
+  toMs?: number
+  markerId?: string
+  kind?: 'detect' | 'content'
+  limit?: number
+}
+
+export interface IScanJournalRecord {
+  timestamp: number
+  kind: 'detect' | 'content'
+  markerId: string
+  markerType?: string
+  data?: string
+}
+
+export interface ICommandQueueStats {
+  depth: number
+  maxDepth: number
+  submitted: number
+  coalesced: number
+  executed: number
+  skipped: number
+  failed: number
+  coalescingRatio: number
+}
+
+export interface IConfigSectionStats {
+  skipped: number
+  applied: number
+  appliedDelta: number
+}
+
+export interface IConfigUpdateStats {
+  userInfo: IConfigSectionStats
+  dynamicProfile: IConfigSectionStats
+  scannerParams: IConfigSectionStats
+}
+
+export interface IConfigSnapshotOptions {
+  enabled?: boolean
+}
+
+export interface IConfigSnapshotInfo {
+  enabled: boolean
+  restored: boolean
+  restoreMs: number
+  sections: Array<'env' | 'scannerParams' | 'appUserId' | 'customAdLabel' | 'userInfo' | 'dynamicProfile'>
+  writes: number
+  bytes: number
+}
+
+export interface ISodyoConfiguration {
+  env?: TEnv
+  scannerParams?: { [key: string]: string }
+  appUserId?: string
+  customAdLabel?: string
+  sodyoLogoVisible?: boolean
+  userInfo?: { [key: string]: string | number }
+  dynamicProfile?: { [key: string]: any }
+}
+
+type TConfigurationSection = keyof ISodyoConfiguration;
+
+export interface IApplyConfigurationResult {
+  durations: { [key in TConfigurationSection]?: number }
+  failed: TConfigurationSection[]
+  totalMs: number
+}
+
 export default _default
+
+export interface IInitState {
+  state: TInitState
+  error: string | null
+}
+
+export interface IOperationResult {
+  durationMs: number
+  queuedMs?: number
+}
+
+export interface ICallTimeouts {
+  default?: number
+  [method: string]: number | undefined
+}
+
+export interface ILatencyStats {
+  count: number
+  meanMs: number
+  p50Ms: number
+  p90Ms: number
+  p99Ms: number
+  maxMs: number
+}
+
+export interface ISimulatedBackendOptions {
+  enabled?: boolean
+  rateHz?: number
+  burstSize?: number
+  payloadBytes?: number
+  errorRatio?: number
+  contentRatio?: number
+  markerCount?: number
+  seed?: number
+}
+
+export interface IBackendInfo {
+  type: 'real' | 'simulated'
+  detections?: number
+  errors?: number
+  contents?: number
+}
+
+export interface ISodyoMetrics {
+  latencies: {
+    init: ILatencyStats
+    startToFirstDetect: ILatencyStats
+    detectToContent: ILatencyStats
+    sendEvent: ILatencyStats
+    cameraStart: ILatencyStats
+    cameraStop: ILatencyStats
+    firstLayoutWarm: ILatencyStats
+    firstLayoutCold: ILatencyStats
+  }
+  counters: {
+    eventsSent: number
+    eventsDropped: number
+  }
+}
+
+export interface IPendingEventQueueOptions {
+  enabled?: boolean
+  capacity?: number
+  overflow?: 'dropOldest' | 'dropNewest' | 'coalesce'
+}
+
+export interface IPendingEventStats {
+  pending: number
+  queued: number
+  replayed: number
+  dropped: number
+  coalesced: number
+}
+
+export type TThermalStatus = 'none' | 'light' | 'moderate' | 'severe' | 'critical' | 'emergency' | 'shutdown'
+
+export interface IScanningGovernorOptions {
+  enabled?: boolean
+  idleTimeoutMs?: number
+  thermalThreshold?: TThermalStatus
+  throttleOnPowerSave?: boolean
+  resumeOnTouch?: boolean
+  throttledParams?: { [key: string]: string }
+  normalParams?: { [key: string]: string }
+}
+
+export interface IScanningGovernorStatus {
+  state: 'active' | 'throttled' | 'idle'
+  throttled: boolean
+  thermalStatus: TThermalStatus
+  powerSave: boolean
+  stoppedByGovernor: boolean
+}
+
+export interface IScanningGovernorState extends IScanningGovernorStatus {
+  enabled: boolean
+  transitions: number
+}
+
+export interface IScanningGovernorEvent extends IScanningGovernorStatus {
+  reason: 'enabled' | 'disabled' | 'config' | 'thermal' | 'powerSave' | 'idle' | 'touch' | 'js'
+}
+
+export interface IScannerReadyEvent {
+  attachMs: number
+  cameraOpenMs?: number
+  pooled: boolean
+}
+
+export interface IFrameStats {
+  tracking: boolean
+  durationMs: number
+  refreshRateHz: number
+  frames: number
+  jankyFrames: number
+  droppedFrames: number
+  jankRatio: number
+  pauses: number
+  frameIntervals: ILatencyStats
+  phases: {
+    attach: IFramePhaseStats
+    cameraStart: IFramePhaseStats
+    cameraStop: IFramePhaseStats
+  }
+}
+
+export interface IFramePhaseStats {
+  events: number
+  jankyFrames: number
+}
+
+export interface IScannerPoolingOptions {
+  enabled?: boolean
+  gracePeriodMs?: number
+}
@@ -1,20 +1,151 @@
 import React, { Component, Fragment } from 'react';
 import {
   View,
-  requireNativeComponent,
   NativeModules,
   NativeEventEmitter,
   Platform,
   StyleSheet,
 } from 'react-native';
 
-const { RNSodyoSdk } = NativeModules;
+import NativeRNSodyoSdk from './specs/NativeRNSodyoSdk';
+import RNSodyoSdkView from './specs/RNSodyoSdkViewNativeComponent';
+
+// TurboModule when the new architecture is enabled, legacy bridge module otherwise
+const RNSodyoSdk = NativeRNSodyoSdk || NativeModules.RNSodyoSdk;
 
 const eventEmitter = new NativeEventEmitter(RNSodyoSdk);
 
+let startBatchSubscription = null;
+
+// Last content delivered per markerId, used to answer native cache hits
+// that arrive without a payload.
+const markerContentMirror = new Map();
+let markerContentMirrorSize = 0;
+
+const rememberMarkerContent = (markerId, data) => {
+  if (!markerContentMirrorSize) {
+    return;
+  }
+
+  markerContentMirror.delete(markerId);
+  markerContentMirror.set(markerId, data);
+
+  if (markerContentMirror.size > markerContentMirrorSize) {
+    markerContentMirror.delete(markerContentMirror.keys().next().value);
+  }
+};
+
+const parseMarkerContent = (data) => {
+  return typeof data === 'string'
+    ? JSON.parse(data)
+    : data || {};
+};
+
+// Calls callback with the content of a marker content event, looking up
+// cache hits in the mirror first and then natively. A hit that is gone from
+// the native cache as well is passed on as null.
+const resolveMarkerContent = (e, callback) => {
+  if (!e.cached) {
+    const data = parseMarkerContent(e.data);
+    rememberMarkerContent(e.markerId, data);
+    callback(e.markerId, data);
+    return;
+  }
+
+  if (markerContentMirror.has(e.markerId)) {
+    callback(e.markerId, markerContentMirror.get(e.markerId));
+    return;
+  }
+
+  RNSodyoSdk.getCachedMarkerContent(e.markerId).then((cached) => {
+    if (cached == null) {
+      callback(e.markerId, null);
+      return;
+    }
+
+    const data = parseMarkerContent(cached);
+    rememberMarkerContent(e.markerId, data);
+    callback(e.markerId, data);
+  }).catch((error) => {
+    console.warn(`SodyoSDK: cached content of marker ${e.markerId} could not be read`, error);
+  });
+};
+
+// Per-method timeouts in ms for promise-returning calls, 0 disables the timeout
+const callTimeouts = { default: 10000 };
+
+const withTimeout = (method, promise) => {
+  const timeoutMs = method in callTimeouts ? callTimeouts[method] : callTimeouts.default;
+
+  if (!timeoutMs) {
+    return promise;
+  }
+
+  return new Promise((resolve, reject) => {
+    const timer = setTimeout(() => {
+      const error = new Error(`${method} timed out after ${timeoutMs}ms`);
+      error.code = 'E_TIMEOUT';
+      reject(error);
+    }, timeoutMs);
+
+    promise.then((result) => {
+      clearTimeout(timer);
+      resolve(result);
+    }, (error) => {
+      clearTimeout(timer);
+      reject(error);
+    });
+  });
+};
+
+// Android resolves with { durationMs }; the iOS methods are fire-and-forget
+const callNative = (method, ...args) => {
+  const result = RNSodyoSdk[method](...args);
+
+  if (Platform.OS !== 'android') {
+    return Promise.resolve(null);
+  }
+
+  return withTimeout(method, result);
+};
+
+const removeStartBatchSubscription = () => {
+  if (startBatchSubscription) {
+    startBatchSubscription.remove();
+    startBatchSubscription = null;
+  }
+};
+
 export default {
   init: (apiKey, successCallback, errorCallback) => {
-    return RNSodyoSdk.init(apiKey, successCallback, errorCallback);
+    // The iOS init still reports through callbacks
+    const native = Platform.OS === 'android'
+      ? RNSodyoSdk.init(apiKey)
+      : new Promise((resolve, reject) => {
+        RNSodyoSdk.init(apiKey, () => resolve(null), (error) => {
+          const initError = new Error(error);
+          initError.code = 'E_INIT_FAILED';
+          reject(initError);
+        });
+      });
+
+    const result = native.then((timing) => {
+      if (typeof successCallback === 'function') {
+        successCallback();
+      }
+      return timing;
+    }, (error) => {
+      if (typeof errorCallback === 'function') {
+        errorCallback(error.message);
+      }
+      throw error;
+    });
+
+    return withTimeout('init', result);
+  },
+
+  setTimeouts: (timeouts) => {
+    Object.assign(callTimeouts, timeouts);
   },
 
   onError: (callback) => {
@@ -54,10 +185,7 @@ export default {
 
     const subscription = eventEmitter.addListener('EventMarkerContent', (e) => {
       if (typeof callback === 'function') {
-        const data = typeof e.data === 'string'
-          ? JSON.parse(e.data)
-          : e.data || {};
-        callback(e.markerId, data);
+        resolveMarkerContent(e, callback);
       }
     });
 
@@ -100,18 +228,45 @@ export default {
   },
 
   performMarker: (markerId, customProperties) => {
-    return RNSodyoSdk.performMarker(markerId, customProperties);
+    return callNative('performMarker', markerId, customProperties);
   },
 
   startTroubleshoot: () => {
-    return RNSodyoSdk.startTroubleshoot();
+    return callNative('startTroubleshoot');
+  },
+
+  setMarkerDetectBatching: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setMarkerDetectBatching(options || null);
+  },
+
+  onMarkerDetectBatch: (callback) => {
+    if (Platform.OS !== 'android') {
+      return () => undefined;
+    }
+
+    eventEmitter.removeAllListeners('EventMarkerDetectBatch');
+
+    const subscription = eventEmitter.addListener('EventMarkerDetectBatch', (e) => {
+      if (typeof callback === 'function') {
+        callback(e.items, e.dropped);
+      }
+    });
+
+    return () => {
+      return subscription.remove();
+    };
   },
 
   start: (successCallback, errorCallback) => {
     eventEmitter.removeAllListeners('EventMarkerDetectSuccess');
     eventEmitter.removeAllListeners('EventMarkerDetectError');
+    removeStartBatchSubscription();
 
-    RNSodyoSdk.start();
+    const result = callNative('start');
 
     eventEmitter.addListener('EventMarkerDetectSuccess', (e) => {
       if (typeof successCallback === 'function') {
@@ -119,11 +274,21 @@ export default {
       }
     });
 
+    if (Platform.OS === 'android') {
+      startBatchSubscription = eventEmitter.addListener('EventMarkerDetectBatch', (e) => {
+        if (typeof successCallback === 'function') {
+          e.items.forEach((item) => successCallback(item.data));
+        }
+      });
+    }
+
     eventEmitter.addListener('EventMarkerDetectError', (e) => {
       if (typeof errorCallback === 'function') {
         errorCallback(e.error);
       }
     });
+
+    return result;
   },
 
   removeAllListeners: () => {
@@ -133,88 +298,432 @@ export default {
   close: () => {
     eventEmitter.removeAllListeners('EventMarkerDetectSuccess');
     eventEmitter.removeAllListeners('EventMarkerDetectError');
+    removeStartBatchSubscription();
 
-    return RNSodyoSdk.close();
+    return callNative('close');
   },
 
   startScanning: () => {
-    return RNSodyoSdk.startScanning();
+    return callNative('startScanning');
   },
 
   stopScanning: () => {
-    return RNSodyoSdk.stopScanning();
+    return callNative('stopScanning');
   },
 
   setUserInfo: (userInfo) => {
-    return RNSodyoSdk.setUserInfo(userInfo);
+    return callNative('setUserInfo', userInfo);
   },
 
   setScannerParams: (scannerPreferences) => {
-    return RNSodyoSdk.setScannerParams(scannerPreferences);
+    return callNative('setScannerParams', scannerPreferences);
   },
 
   addScannerParam: (key, value) => {
-    return RNSodyoSdk.addScannerParam(key, value);
+    return callNative('addScannerParam', key, value);
   },
 
   setDynamicProfileValue: (key, value) => {
-    return RNSodyoSdk.setDynamicProfileValue(key, value);
+    return callNative('setDynamicProfileValue', key, value);
   },
 
   setDynamicProfile: (profile) => {
-    return RNSodyoSdk.setDynamicProfile(profile);
+    return callNative('setDynamicProfile', profile);
   },
 
   setCustomAdLabel: (label) => {
-    return RNSodyoSdk.setCustomAdLabel(label);
+    return callNative('setCustomAdLabel', label);
   },
 
   setAppUserId: (appUserId) => {
-    return RNSodyoSdk.setAppUserId(appUserId);
+    return callNative('setAppUserId', appUserId);
   },
 
   setSodyoLogoVisible: (isVisible) => {
-    return RNSodyoSdk.setSodyoLogoVisible(isVisible);
+    return callNative('setSodyoLogoVisible', isVisible);
   },
 
   setTroubleshootMode: () => {
-    return RNSodyoSdk.setTroubleshootMode();
+    return callNative('setTroubleshootMode');
   },
 
   setNormalMode: () => {
-    return RNSodyoSdk.setNormalMode();
+    return callNative('setNormalMode');
   },
 
   setEnv: (env) => {
-    return RNSodyoSdk.setEnv(env);
+    return callNative('setEnv', env);
   },
 
   getMode: () => {
     return RNSodyoSdk.getMode();
   },
+
+  setStructuredMarkerContent: (enabled) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setStructuredMarkerContent(!!enabled);
+  },
+
+  setMarkerContentCache: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    const enabled = !!options && options.enabled !== false;
+    markerContentMirror.clear();
+    markerContentMirrorSize = enabled ? options.maxEntries || 32 : 0;
+
+    return RNSodyoSdk.setMarkerContentCache(options || null);
+  },
+
+  getCachedMarkerContent: (markerId) => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getCachedMarkerContent(markerId).then((cached) => {
+      return cached == null ? null : parseMarkerContent(cached);
+    });
+  },
+
+  prefetchMarkerContent: (markerId, content) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    rememberMarkerContent(markerId, content);
+    return RNSodyoSdk.prefetchMarkerContent(markerId, content);
+  },
+
+  getMarkerContentCacheStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getMarkerContentCacheStats();
+  },
+
+  applyConfiguration: (configuration) => {
+    if (Platform.OS !== 'android') {
+      return Promise.reject(new Error('applyConfiguration is only supported on Android'));
+    }
+
+    return RNSodyoSdk.applyConfiguration(configuration);
+  },
+
+  addMarkerFilter: (options) => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.addMarkerFilter(options || {});
+  },
+
+  removeMarkerFilter: (id) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.removeMarkerFilter(id);
+  },
+
+  clearMarkerFilters: () => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.clearMarkerFilters();
+  },
+
+  getMarkerFilterStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getMarkerFilterStats();
+  },
+
+  setScanJournal: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setScanJournal(options || null);
+  },
+
+  queryScanJournal: (query) => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve([]);
+    }
+
+    return RNSodyoSdk.queryScanJournal(query || null);
+  },
+
+  clearScanJournal: () => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.clearScanJournal();
+  },
+
+  getCommandQueueStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getCommandQueueStats();
+  },
+
+  getConfigUpdateStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getConfigUpdateStats();
+  },
+
+  setConfigSnapshot: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setConfigSnapshot(options || null);
+  },
+
+  getConfigSnapshotInfo: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getConfigSnapshotInfo();
+  },
+
+  setLogLevel: (level) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setLogLevel(level);
+  },
+
+  setTracingEnabled: (enabled) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setTracingEnabled(!!enabled);
+  },
+
+  getInitState: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getInitState();
+  },
+
+  setSimulatedBackend: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setSimulatedBackend(options || null);
+  },
+
+  getBackendInfo: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getBackendInfo();
+  },
+
+  getMetrics: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getMetrics();
+  },
+
+  getFrameStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getFrameStats();
+  },
+
+  resetMetrics: () => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.resetMetrics();
+  },
+
+  setPendingEventQueue: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setPendingEventQueue(options || null);
+  },
+
+  getPendingEventStats: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getPendingEventStats();
+  },
+
+  setScannerPooling: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setScannerPooling(options || null);
+  },
+
+  setScanningGovernor: (options) => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.setScanningGovernor(options || null);
+  },
+
+  resumeScanning: () => {
+    if (Platform.OS !== 'android') {
+      return;
+    }
+
+    return RNSodyoSdk.resumeScanning();
+  },
+
+  getScanningGovernorState: () => {
+    if (Platform.OS !== 'android') {
+      return Promise.resolve(null);
+    }
+
+    return RNSodyoSdk.getScanningGovernorState();
+  },
+
+  onScanningGovernorChange: (callback) => {
+    if (Platform.OS !== 'android') {
+      return () => undefined;
+    }
+
+    eventEmitter.removeAllListeners('EventScanningGovernor');
+
+    const subscription = eventEmitter.addListener('EventScanningGovernor', (e) => {
+      if (typeof callback === 'function') {
+        callback(e);
+      }
+    });
+
+    return () => {
+      return subscription.remove();
+    };
+  },
+
+  onMetrics: (callback, intervalMs = 5000) => {
+    if (Platform.OS !== 'android') {
+      return () => undefined;
+    }
+
+    eventEmitter.removeAllListeners('EventSodyoMetrics');
+
+    const subscription = eventEmitter.addListener('EventSodyoMetrics', (e) => {
+      if (typeof callback === 'function') {
+        callback(e);
+      }
+    });
+
+    RNSodyoSdk.setMetricsInterval(intervalMs);
+
+    return () => {
+      RNSodyoSdk.setMetricsInterval(0);
+      return subscription.remove();
+    };
+  },
 };
 
 export class Scanner extends Component {
   static defaultProps = {
     isEnabled: true,
     isTroubleShootingEnabled: false,
+    cameraToggleDebounceMs: 0,
+    frameTelemetryIntervalMs: 0,
   };
 
   componentDidUpdate(prevProps, prevState, snapshot) {
     if (this.props.isTroubleShootingEnabled) {
       if (Platform.OS !== 'ios') {
-        return RNSodyoSdk.startTroubleshoot()
+        callNative('startTroubleshoot').catch((error) => {
+          console.warn('SodyoSDK: startTroubleshoot failed', error);
+        });
       }
     }
   }
 
+  handleMarkerDetect = ({ nativeEvent }) => {
+    const { onMarkerDetect } = this.props;
+    if (typeof onMarkerDetect !== 'function') {
+      return;
+    }
+
+    if (nativeEvent.items) {
+      nativeEvent.items.forEach((item) => onMarkerDetect(item.data));
+    } else {
+      onMarkerDetect(nativeEvent.data);
+    }
+  };
+
+  handleMarkerContent = ({ nativeEvent }) => {
+    const { onMarkerContent } = this.props;
+    if (typeof onMarkerContent === 'function') {
+      resolveMarkerContent(nativeEvent, onMarkerContent);
+    }
+  };
+
   render () {
-    const { isEnabled, isTroubleShootingEnabled, children } = this.props;
+    const {
+      isEnabled,
+      isTroubleShootingEnabled,
+      cameraToggleDebounceMs,
+      frameTelemetryIntervalMs,
+      onScannerReady,
+      onFrameStats,
+      onMarkerDetect,
+      onMarkerContent,
+      onModeChange,
+      onError,
+      children,
+    } = this.props;
+
+    // Android only: with any of these set, the view gets scanner events instead of the global listeners
+    const directEvents = Platform.OS === 'android' && !!(onMarkerDetect || onMarkerContent || onModeChange || onError);
+
     return (
       <Fragment>
         <RNSodyoSdkView
           isEnabled={isEnabled}
           isTroubleShootingEnabled={isTroubleShootingEnabled}
+          cameraToggleDebounceMs={cameraToggleDebounceMs}
+          directEvents={directEvents}
+          frameTelemetryIntervalMs={frameTelemetryIntervalMs}
+          onScannerReady={onScannerReady && ((e) => onScannerReady(e.nativeEvent))}
+          onFrameStats={onFrameStats && ((e) => onFrameStats(e.nativeEvent))}
+          onMarkerDetect={this.handleMarkerDetect}
+          onMarkerContent={this.handleMarkerContent}
+          onModeChange={onModeChange && ((e) => onModeChange(e.nativeEvent))}
+          onError={onError && ((e) => onError(e.nativeEvent.error, e.nativeEvent.source))}
           style={{ height: '100%', width: '100%' }}
         />
 
@@ -232,9 +741,14 @@ export const SODYO_ENV = {
   PROD: 'PROD',
 }
 
-const RNSodyoSdkView = requireNativeComponent('RNSodyoSdkView', Scanner, {
-  nativeOnly: {},
-});
+export const LOG_LEVEL = {
+  VERBOSE: 'VERBOSE',
+  DEBUG: 'DEBUG',
+  INFO: 'INFO',
+  WARN: 'WARN',
+  ERROR: 'ERROR',
+  NONE: 'NONE',
+}
 
 
 const styles = StyleSheet.create({
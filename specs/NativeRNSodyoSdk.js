@@ -0,0 +1,70 @@
+/**
+ * Codegen spec of the RNSodyoSdk native module.
+ *
+ * @flow strict-local
+ * @format
+ */
+
+import type { TurboModule } from 'react-native/Libraries/TurboModule/RCTExport';
+import { TurboModuleRegistry } from 'react-native';
+
+export interface Spec extends TurboModule {
+  +init: (apiKey: string) => Promise<Object>;
+  +start: () => Promise<Object>;
+  +close: () => Promise<Object>;
+  +setUserInfo: (userInfo: ?Object) => Promise<Object>;
+  +setCustomAdLabel: (label: ?string) => Promise<Object>;
+  +setAppUserId: (userId: ?string) => Promise<Object>;
+  +setScannerParams: (scannerPreferences: ?Object) => Promise<Object>;
+  +addScannerParam: (key: string, value: string) => Promise<Object>;
+  +startScanning: () => Promise<Object>;
+  +stopScanning: () => Promise<Object>;
+  +setDynamicProfile: (profile: ?Object) => Promise<Object>;
+  +setDynamicProfileValue: (key: string, value: string) => Promise<Object>;
+  +performMarker: (markerId: string, customProperties: ?Object) => Promise<Object>;
+  +startTroubleshoot: () => Promise<Object>;
+  +setTroubleshootMode: () => Promise<Object>;
+  +setNormalMode: () => Promise<Object>;
+  +getMode: () => string;
+  +setSodyoLogoVisible: (isVisible: boolean) => Promise<Object>;
+  +setEnv: (env: ?string) => Promise<Object>;
+  +applyConfiguration: (configuration: Object) => Promise<Object>;
+  +setMarkerDetectBatching: (options: ?Object) => void;
+  +setStructuredMarkerContent: (enabled: boolean) => void;
+  +setMarkerContentCache: (options: ?Object) => void;
+  +getCachedMarkerContent: (markerId: string) => Promise<mixed>;
+  +prefetchMarkerContent: (markerId: string, content: Object) => void;
+  +getMarkerContentCacheStats: () => Promise<Object>;
+  +addMarkerFilter: (options: Object) => Promise<string>;
+  +removeMarkerFilter: (id: string) => void;
+  +clearMarkerFilters: () => void;
+  +getMarkerFilterStats: () => Promise<Object>;
+  +setScanJournal: (options: ?Object) => void;
+  +queryScanJournal: (query: ?Object) => Promise<Array<Object>>;
+  +clearScanJournal: () => void;
+  +getCommandQueueStats: () => Promise<Object>;
+  +getConfigUpdateStats: () => Promise<Object>;
+  +setConfigSnapshot: (options: ?Object) => void;
+  +getConfigSnapshotInfo: () => Promise<Object>;
+  +setLogLevel: (level: string) => void;
+  +setTracingEnabled: (enabled: boolean) => void;
+  +getInitState: () => Promise<Object>;
+  +setSimulatedBackend: (options: ?Object) => void;
+  +getBackendInfo: () => Promise<Object>;
+  +getMetrics: () => Promise<Object>;
+  +getFrameStats: () => Promise<Object>;
+  +resetMetrics: () => void;
+  +setMetricsInterval: (intervalMs: number) => void;
+  +setPendingEventQueue: (options: ?Object) => void;
+  +getPendingEventStats: () => Promise<Object>;
+  +setScannerPooling: (options: ?Object) => void;
+  +setScanningGovernor: (options: ?Object) => void;
+  +resumeScanning: () => void;
+  +getScanningGovernorState: () => Promise<Object>;
+
+  // NativeEventEmitter
+  +addListener: (eventName: string) => void;
+  +removeListeners: (count: number) => void;
+}
+
+export default (TurboModuleRegistry.get<Spec>('RNSodyoSdk'): ?Spec);
@@ -0,0 +1,74 @@
+/**
+ * Codegen spec of the RNSodyoSdkView scanner component.
+ *
+ * @flow strict-local
+ * @format
+ */
+
+import type { ViewProps } from 'react-native/Libraries/Components/View/ViewPropTypes';
+import type { HostComponent } from 'react-native';
+import type { DirectEventHandler, Double, Int32, UnsafeMixed, WithDefault } from 'react-native/Libraries/Types/CodegenTypes';
+import codegenNativeComponent from 'react-native/Libraries/Utilities/codegenNativeComponent';
+
+type ScannerReadyEvent = $ReadOnly<{|
+  attachMs: Double,
+  cameraOpenMs?: Double,
+  pooled: boolean,
+|}>;
+
+type MarkerDetectItem = $ReadOnly<{|
+  data: string,
+  timestamp: Double,
+|}>;
+
+// Either a single detection (data) or a batch (items, dropped)
+type MarkerDetectEvent = $ReadOnly<{|
+  data?: string,
+  items?: $ReadOnlyArray<MarkerDetectItem>,
+  dropped?: Int32,
+|}>;
+
+// data is a map when structured marker content is on and a JSON string otherwise
+type MarkerContentEvent = $ReadOnly<{|
+  markerId: string,
+  data?: UnsafeMixed,
+  cached?: boolean,
+|}>;
+
+type ModeChangeEvent = $ReadOnly<{|
+  oldMode: string,
+  newMode: string,
+|}>;
+
+type ErrorEvent = $ReadOnly<{|
+  error?: string,
+  source: string,
+|}>;
+
+type FrameStatsEvent = $ReadOnly<{|
+  tracking: boolean,
+  durationMs: Double,
+  refreshRateHz: Double,
+  frames: Double,
+  jankyFrames: Double,
+  droppedFrames: Double,
+  jankRatio: Double,
+  pauses: Double,
+|}>;
+
+type NativeProps = $ReadOnly<{|
+  ...ViewProps,
+  isEnabled?: WithDefault<boolean, true>,
+  isTroubleShootingEnabled?: WithDefault<boolean, false>,
+  cameraToggleDebounceMs?: WithDefault<Int32, 0>,
+  directEvents?: WithDefault<boolean, false>,
+  frameTelemetryIntervalMs?: WithDefault<Int32, 0>,
+  onScannerReady?: ?DirectEventHandler<ScannerReadyEvent>,
+  onFrameStats?: ?DirectEventHandler<FrameStatsEvent>,
+  onMarkerDetect?: ?DirectEventHandler<MarkerDetectEvent>,
+  onMarkerContent?: ?DirectEventHandler<MarkerContentEvent>,
+  onModeChange?: ?DirectEventHandler<ModeChangeEvent>,
+  onError?: ?DirectEventHandler<ErrorEvent>,
+|}>;
+
+export default (codegenNativeComponent<NativeProps>('RNSodyoSdkView'): HostComponent<NativeProps>);